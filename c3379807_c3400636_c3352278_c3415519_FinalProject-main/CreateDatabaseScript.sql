@@ -70,6 +70,37 @@ CREATE TABLE Issue (
 );
 GO
 
+-- Categories an IT Staff member is skilled in, used by automatic assignment. Issues in a category with
+-- skilled staff only go to them, and a higher weight takes proportionally more open issues.
+CREATE TABLE Staff_Skill (
+    user_id INT NOT NULL,
+    category_id INT NOT NULL,
+    weight FLOAT NOT NULL DEFAULT 1,
+    PRIMARY KEY (user_id, category_id),
+    FOREIGN KEY (user_id) REFERENCES [User](user_id) ON DELETE CASCADE,
+    FOREIGN KEY (category_id) REFERENCES Issue_Category(category_id)
+);
+GO
+
+-- Supports keyset pagination of the issue listing on (date_reported, issue_id)
+CREATE INDEX IX_Issue_Date_Reported ON Issue (date_reported, issue_id);
+GO
+
+-- Supports the resolution time statistics and the daily rollup
+CREATE INDEX IX_Issue_Date_Resolved ON Issue (date_resolved) INCLUDE (date_reported, category_id, state_id);
+GO
+
+-- Daily rollup of resolved issues per category, populated by the in-app statistics rollup job
+CREATE TABLE Issue_Stats_Daily (
+    stat_date DATE NOT NULL,
+    category_id INT NOT NULL,
+    resolved_count INT NOT NULL,
+    total_resolution_days BIGINT NOT NULL,
+    PRIMARY KEY (stat_date, category_id),
+    FOREIGN KEY (category_id) REFERENCES Issue_Category(category_id)
+);
+GO
+
 CREATE TABLE Keyword (
     keyword_id INT PRIMARY KEY IDENTITY(1,1),
     keyword_name VARCHAR(50) NOT NULL UNIQUE
@@ -107,6 +138,28 @@ CREATE TABLE Knowledge_Base (
 );
 GO
 
+-- View and link totals of each knowledge base article, and a popularity score that decays over time
+CREATE TABLE Knowledge_Base_Popularity (
+    kb_id INT PRIMARY KEY,
+    view_count BIGINT NOT NULL,
+    link_count BIGINT NOT NULL,
+    score FLOAT NOT NULL,
+    score_updated DATETIME NOT NULL,
+    FOREIGN KEY (kb_id) REFERENCES Knowledge_Base(kb_id) ON DELETE CASCADE
+);
+GO
+
+-- Knowledge base articles that staff named as the fix when resolving an issue, one row per pair,
+-- so a link is counted towards an article's popularity once
+CREATE TABLE Issue_Knowledge_Base_Link (
+    issue_id INT NOT NULL,
+    kb_id INT NOT NULL,
+    PRIMARY KEY (issue_id, kb_id),
+    FOREIGN KEY (issue_id) REFERENCES Issue(issue_id) ON DELETE CASCADE,
+    FOREIGN KEY (kb_id) REFERENCES Knowledge_Base(kb_id)
+);
+GO
+
 CREATE TABLE [File] (
     file_id INT PRIMARY KEY IDENTITY(1,1),
     issue_id INT,
@@ -210,6 +263,8 @@ CREATE VIEW VW_Knowledge_Base AS (
           ,KBAR.issue_id           AS issueId
 		  ,IDTL.title		       AS issueTitle
 		  ,IDTL.description	       AS issueDescription
+		  ,IDTL.category_id        AS categoryId
+		  ,ICTG.category_name      AS category
 		  ,KBAR.title		       AS articleTitle
 		  ,KBAR.description	       AS articleDescription
 		  ,KBAR.resolution_details AS resolutionDetails
@@ -218,6 +273,9 @@ CREATE VIEW VW_Knowledge_Base AS (
 	    -- Issue Details
 	    INNER JOIN dbo.Issue IDTL
 		        ON KBAR.issue_id = IDTL.issue_id
+	    -- Category Description
+	    INNER JOIN dbo.Issue_Category ICTG
+		        ON IDTL.category_id = ICTG.category_id
 		-- User Details
 	    --INNER JOIN dbo.[User] UDTL
 		   --     ON KBAR.user_id = UDTL.user_id
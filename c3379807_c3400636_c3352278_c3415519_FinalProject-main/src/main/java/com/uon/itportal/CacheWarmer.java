@@ -0,0 +1,43 @@
+package com.uon.itportal;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import model.AssignmentEngine;
+import model.AutocompleteIndex;
+import model.IssueColumns;
+import model.IssueStatistics;
+import model.KeywordIndex;
+import model.KnowledgeBaseIndex;
+import model.PopularityTracker;
+import model.ReferenceData;
+import model.SearchIndex;
+import model.SimilarityIndex;
+
+/**
+ * Loads the in-process caches once the application has started, so the first requests
+ * do not pay for filling them.
+ */
+@Component
+public class CacheWarmer implements ApplicationRunner {
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            ReferenceData.reload();
+            IssueStatistics.reload();
+            IssueColumns.reload();
+            SearchIndex.reload();
+            KeywordIndex.reload();
+            SimilarityIndex.reload();
+            AutocompleteIndex.reload();
+            KnowledgeBaseIndex.reload();
+            PopularityTracker.recomputeRanking();
+            AssignmentEngine.reload();
+        } catch (Exception e) {
+            // The caches load lazily on first use if the database is not reachable yet
+            e.printStackTrace();
+        }
+    }
+}
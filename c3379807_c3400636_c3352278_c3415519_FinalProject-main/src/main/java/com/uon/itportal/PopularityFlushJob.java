@@ -0,0 +1,41 @@
+package com.uon.itportal;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import model.PopularityTracker;
+
+/**
+ * Writes the knowledge base view and link counts to the database in batches, and periodically
+ * reorders the knowledge base by the decayed popularity scores. Counts still in memory are
+ * written once more when the application shuts down.
+ */
+@Component
+public class PopularityFlushJob implements DisposableBean {
+
+    @Scheduled(fixedDelayString = "${itportal.knowledge-base.popularity.flush-interval-ms:30000}")
+    public void flush() {
+        try {
+            PopularityTracker.flush();
+        } catch (Exception e) {
+            // The counts stay in memory and are written by the next flush
+            e.printStackTrace();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${itportal.knowledge-base.popularity.ranking-interval-ms:300000}",
+            initialDelayString = "${itportal.knowledge-base.popularity.ranking-interval-ms:300000}")
+    public void recomputeRanking() {
+        try {
+            PopularityTracker.recomputeRanking();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        flush();
+    }
+}
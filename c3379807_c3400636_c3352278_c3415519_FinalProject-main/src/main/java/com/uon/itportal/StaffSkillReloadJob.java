@@ -0,0 +1,25 @@
+package com.uon.itportal;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import model.AssignmentEngine;
+
+/**
+ * Reads the staff skills used by automatic assignment again periodically, so changes made to
+ * [Staff_Skill] in the database are picked up without a restart.
+ */
+@Component
+public class StaffSkillReloadJob {
+
+    @Scheduled(fixedDelayString = "${itportal.assignment.skill-reload-interval-ms:300000}",
+            initialDelayString = "${itportal.assignment.skill-reload-interval-ms:300000}")
+    public void reloadSkills() {
+        try {
+            AssignmentEngine.reloadSkills();
+        } catch (Exception e) {
+            // The previous skills stay in use until the next reload
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.uon.itportal;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import model.IssueStatistics;
+import model.IssueStatsDaily;
+
+/**
+ * Populates the Issue_Stats_Daily rollup table: the configured history is backfilled at startup,
+ * then the most recent days are recomputed every night so late state changes are picked up.
+ * When several instances run the job at once, only the one that takes the rollup lock replaces the rows.
+ */
+@Component
+public class StatisticsRollupJob implements ApplicationRunner {
+
+    @Value("${itportal.statistics.rollup-history-days:400}")
+    private int historyDays;
+
+    @Value("${itportal.statistics.rollup-recompute-days:7}")
+    private int recomputeDays;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rollUp(historyDays);
+    }
+
+    @Scheduled(cron = "${itportal.statistics.rollup-cron:0 5 0 * * *}", zone = "${itportal.statistics.zone:}")
+    public void rollUpRecentDays() {
+        rollUp(recomputeDays);
+    }
+
+    private void rollUp(int days) {
+        LocalDate yesterday = LocalDate.now(IssueStatistics.getZone()).minusDays(1);
+        try {
+            IssueStatsDaily.rollUp(yesterday.minusDays(days - 1), yesterday);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
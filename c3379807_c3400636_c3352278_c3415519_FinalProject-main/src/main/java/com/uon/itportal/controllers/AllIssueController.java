@@ -4,40 +4,149 @@ import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import model.Issue;
+import model.Category;
+import model.IssueColumns;
+import model.IssueColumnsSnapshot;
+import model.IssueCursor;
+import model.IssueFacetCounts;
+import model.IssueFilter;
+import model.IssuePage;
+import model.IssueSummary;
+import model.ReferenceData;
+import model.SortDirection;
+import model.State;
 
 @Controller
 public class AllIssueController {
 
+    private static final int DEFAULT_PAGE_SIZE = 25;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final long DAY_MILLIS = 86400000L;
+
     @GetMapping("/all-issues")
-    public String viewAllIssues(Model model) {
+    public String viewAllIssues(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", required = false, defaultValue = "25") int size,
+            @RequestParam(value = "direction", required = false) String direction,
+            @RequestParam(value = "categoryId", required = false) Integer categoryId,
+            @RequestParam(value = "stateId", required = false) Integer stateId,
+            @RequestParam(value = "assignedToId", required = false) Integer assignedToId,
+            @RequestParam(value = "reportedById", required = false) Integer reportedById,
+            @RequestParam(value = "within", required = false) Integer within,
+            Model model) {
         try {
-            // Retrieve all issues from the database
-            List<Issue> issues = Issue.getAllIssues();
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            SortDirection sortDirection = SortDirection.parse(direction, SortDirection.DESCENDING);
+
+            // The selected facets; "within" selects issues reported in the last N days
+            long now = System.currentTimeMillis();
+            Date reportedFrom = within == null ? null : new Date(now - within * DAY_MILLIS);
+            IssueFilter filter = new IssueFilter(categoryId, stateId, assignedToId, reportedById, reportedFrom, null);
+
+            Map<String, Integer> selection = new LinkedHashMap<>();
+            selection.put("categoryId", categoryId);
+            selection.put("stateId", stateId);
+            selection.put("assignedToId", assignedToId);
+            selection.put("reportedById", reportedById);
+            selection.put("within", within);
+
+            // Retrieve a single page of the matching issues from the database
+            IssuePage page = IssueSummary.getIssueSummariesPage(filter, pageSize, IssueCursor.decode(after), IssueCursor.decode(before), sortDirection);
 
             // Calculate resolving time for each issue and create a DTO list
-            List<IssueDTO> issueDTOs = issues.stream()
+            List<IssueDTO> issueDTOs = page.issues().stream()
                 .map(issue -> {
                     Long resolvingTime = calculateResolvingTime(issue.dateReported(), issue.state());
                     return new IssueDTO(issue, resolvingTime);
                 })
                 .collect(Collectors.toList());
 
-            // Add the list of issues to the model
+            // Add the page of issues and the neighbouring page cursors to the model
             model.addAttribute("issues", issueDTOs);
+            model.addAttribute("pageSize", pageSize);
+            model.addAttribute("direction", sortDirection == SortDirection.ASCENDING ? "asc" : "desc");
+            model.addAttribute("previousCursor", page.hasPrevious() ? page.previousCursor().encode() : null);
+            model.addAttribute("nextCursor", page.hasNext() ? page.nextCursor().encode() : null);
+            model.addAttribute("filterQuery", query(selection, null, null));
+
+            // Facet counts from the in-memory issue columns, each given the other selected facets
+            IssueColumnsSnapshot columns = IssueColumns.getSnapshot();
+            IssueFacetCounts counts = columns.getFacetCounts(filter, now);
+
+            Map<Integer, String> categoryNames = new HashMap<>();
+            for (Category category : ReferenceData.getAllCategories()) {
+                categoryNames.put(category.categoryId(), category.category());
+            }
+            Map<Integer, String> stateNames = new HashMap<>();
+            List<State> states = ReferenceData.getAllStates();
+            for (State state : states) {
+                stateNames.put(state.stateId(), state.state());
+            }
+            model.addAttribute("states", states);
+            Map<Integer, String> assigneeNames = new HashMap<>();
+            counts.assignees().keySet().forEach(id -> assigneeNames.put(id, columns.getUserName(id)));
+            Map<Integer, String> reporterNames = new HashMap<>();
+            counts.reporters().keySet().forEach(id -> reporterNames.put(id, columns.getUserName(id)));
+            Map<Integer, String> withinNames = new HashMap<>();
+            counts.reportedWithinDays().keySet().forEach(days -> withinNames.put(days, "Last " + days + " days"));
+
+            model.addAttribute("categoryFacet", facet(counts.categories(), categoryNames, "categoryId", selection, pageSize, sortDirection));
+            model.addAttribute("stateFacet", facet(counts.states(), stateNames, "stateId", selection, pageSize, sortDirection));
+            model.addAttribute("assigneeFacet", facet(counts.assignees(), assigneeNames, "assignedToId", selection, pageSize, sortDirection));
+            model.addAttribute("reporterFacet", facet(counts.reporters(), reporterNames, "reportedById", selection, pageSize, sortDirection));
+            model.addAttribute("withinFacet", facet(counts.reportedWithinDays(), withinNames, "within", selection, pageSize, sortDirection));
         } catch (SQLException e) {
             e.printStackTrace();
             // Handle the exception, e.g., add an error message to the model
             model.addAttribute("error", "Error retrieving issues: " + e.getMessage());
         }
-        return "all_issues";
+        return "all_issue";
+    }
+
+    // Builds the values of one facet, most issues first, each linking to the list with that value toggled
+    private List<FacetValue> facet(Map<Integer, Integer> counts, Map<Integer, String> names, String parameter,
+            Map<String, Integer> selection, int pageSize, SortDirection sortDirection) {
+        List<FacetValue> values = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : counts.entrySet()) {
+            boolean selected = entry.getKey().equals(selection.get(parameter));
+            String name = names.get(entry.getKey());
+            String href = "/all-issues?size=" + pageSize
+                    + "&direction=" + (sortDirection == SortDirection.ASCENDING ? "asc" : "desc")
+                    + query(selection, parameter, selected ? null : entry.getKey());
+            values.add(new FacetValue(name != null ? name : "#" + entry.getKey(), entry.getValue(), selected, href));
+        }
+        // The date ranges keep their natural order; the other facets list the most issues first
+        if (!"within".equals(parameter)) {
+            values.sort(Comparator.comparingInt(FacetValue::count).reversed());
+        }
+        return values;
+    }
+
+    // Builds the query string of the selected facets, with one parameter replaced or removed
+    private String query(Map<String, Integer> selection, String parameter, Integer value) {
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, Integer> entry : selection.entrySet()) {
+            Integer selected = entry.getKey().equals(parameter) ? value : entry.getValue();
+            if (selected != null) {
+                query.append('&').append(entry.getKey()).append('=').append(selected);
+            }
+        }
+        return query.toString();
     }
 
     private Long calculateResolvingTime(java.util.Date dateReported, String state) {
@@ -50,5 +159,8 @@ public class AllIssueController {
     }
 
     // DTO class to hold issue data along with resolving time
-    public static record IssueDTO(Issue issue, Long resolvingTime) {}
+    public static record IssueDTO(IssueSummary issue, Long resolvingTime) {}
+
+    // One value of a facet, with the number of issues it would match and the link that toggles it
+    public static record FacetValue(String name, int count, boolean selected, String href) {}
 }
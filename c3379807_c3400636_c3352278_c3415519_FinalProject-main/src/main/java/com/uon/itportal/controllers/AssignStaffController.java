@@ -1,70 +1,55 @@
 package com.uon.itportal.controllers;
 
 import java.sql.SQLException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 import model.Issue;
-import model.User;
+import model.IssueCache;
 
 @Controller
 public class AssignStaffController {
 
     @GetMapping("/manager-assign-staff")
-    public String assignStaffForm(Model model) {
-        try {
-            // Retrieve all issues and IT staff to populate the form
-            List<Issue> issues = Issue.getAllIssues();
-            List<User> staff = User.getAllUsers().stream()
-                                   .filter(user -> user.role().equalsIgnoreCase("IT Staff"))
-                                   .toList();
+    public String assignStaffForm() {
+        // Issues and IT staff are looked up through /autocomplete as the manager types, so nothing is preloaded
+        return "manager_assign_staff";
+    }
 
-            model.addAttribute("issues", issues);
-            model.addAttribute("staff", staff);
-        } catch (SQLException e) {
-            e.printStackTrace();
-            // Handle the exception, e.g., add an error message to the model
-            model.addAttribute("error", "Error retrieving issues or staff: " + e.getMessage());
+    // The current assignee of the chosen issue, which the form posts back as the expected assignee
+    @GetMapping("/manager-assign-staff/issues/{id}")
+    @ResponseBody
+    public Map<String, Object> currentAssignee(@PathVariable("id") int issueId) throws SQLException {
+        Map<String, Object> assignee = new HashMap<>();
+        Issue issue = IssueCache.getIssue(issueId);
+        if (issue != null) {
+            assignee.put("assignedToId", issue.assignedToId());
+            assignee.put("assignedToFullName", issue.assignedToFullName());
         }
-        return "manager_assign_staff";
+        return assignee;
     }
 
     @PostMapping("/manager-assign-staff")
     public String assignStaff(
             @RequestParam("issueId") int issueId,
+            @RequestParam("expectedStaffId") int expectedStaffId,
             @RequestParam("staffId") int staffId,
             Model model) {
         try {
-            // Retrieve the issue and update its assigned staff member
-            Issue issue = Issue.getIssue(issueId);
-            if (issue != null) {
-                Issue updatedIssue = new Issue(
-                        issue.issueId(),
-                        issue.title(),
-                        issue.description(),
-                        issue.resolutionDetails(),
-                        issue.categoryId(),
-                        issue.category(),
-                        issue.stateId(),
-                        issue.state(),
-                        issue.dateReported(),
-                        issue.dateResolved(),
-                        issue.reportedById(),
-                        issue.reportedByFullName(),
-                        staffId,
-                        null // assignedToFullName will be set by the database view
-                );
-                Issue.updateIssue(updatedIssue);
-
+            // Update only the assigned staff member, and only if nobody has reassigned the issue since it was chosen
+            if (Issue.assignIssue(issueId, expectedStaffId, staffId) > 0) {
                 // Add a success message to the model
                 model.addAttribute("message", "Staff successfully assigned to the issue.");
             } else {
-                model.addAttribute("error", "Issue not found.");
+                model.addAttribute("error", "The issue was not assigned: it no longer exists or was reassigned since you chose it. Choose it again to see who it is assigned to now.");
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -0,0 +1,29 @@
+package com.uon.itportal.controllers;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import model.AutocompleteIndex;
+import model.Suggestion;
+
+@Controller
+public class AutocompleteController {
+
+    private static final int MAX_SUGGESTIONS = 20;
+
+    @GetMapping("/autocomplete/{source}")
+    @ResponseBody
+    public List<Suggestion> autocomplete(
+            @PathVariable("source") String source,
+            @RequestParam(value = "q", required = false) String prefix,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) throws SQLException {
+        // Source is one of keywords, users, staff or issues; the best prefix matches are returned as JSON
+        return AutocompleteIndex.complete(source, prefix, Math.max(1, Math.min(limit, MAX_SUGGESTIONS)));
+    }
+}
@@ -0,0 +1,74 @@
+package com.uon.itportal.controllers;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import model.AssignmentEngine;
+import model.BulkUpdateResult;
+import model.Issue;
+import model.ReferenceData;
+
+@Controller
+public class BulkIssueController {
+
+    @Value("${itportal.bulk.max-issues:1000}")
+    private int maxIssues;
+
+    @PostMapping("/manager-bulk/assign")
+    @ResponseBody
+    public List<BulkUpdateResult> assignIssues(
+            @RequestParam("issueIds") List<Integer> issueIds,
+            @RequestParam("staffId") int staffId) throws SQLException {
+        // Only IT Staff can be assigned issues
+        if (!AssignmentEngine.getOpenCounts().containsKey(staffId)) {
+            return rejectAll(issueIds, "Not an IT Staff member");
+        }
+
+        // All the issues are assigned in one transaction, with the outcome reported per issue
+        List<BulkUpdateResult> results = Issue.assignIssues(accepted(issueIds), staffId);
+        results.addAll(rejected(issueIds));
+        return results;
+    }
+
+    @PostMapping("/manager-bulk/state")
+    @ResponseBody
+    public List<BulkUpdateResult> changeIssueStates(
+            @RequestParam("issueIds") List<Integer> issueIds,
+            @RequestParam("stateId") int stateId) throws SQLException {
+        // Only existing states can be moved to
+        if (ReferenceData.getStateName(stateId) == null) {
+            return rejectAll(issueIds, "No state " + stateId);
+        }
+
+        // Issues whose current state cannot move to the target state are reported and left unchanged
+        List<BulkUpdateResult> results = Issue.transitionIssueStates(accepted(issueIds), stateId);
+        results.addAll(rejected(issueIds));
+        return results;
+    }
+
+    // The issues processed by one request, up to the configured maximum
+    private List<Integer> accepted(List<Integer> issueIds) {
+        return issueIds.subList(0, Math.min(issueIds.size(), maxIssues));
+    }
+
+    // The issues beyond the configured maximum, reported as not processed
+    private List<BulkUpdateResult> rejected(List<Integer> issueIds) {
+        return rejectAll(issueIds.subList(Math.min(issueIds.size(), maxIssues), issueIds.size()),
+                "Not processed: at most " + maxIssues + " issues per request");
+    }
+
+    private List<BulkUpdateResult> rejectAll(List<Integer> issueIds, String message) {
+        List<BulkUpdateResult> results = new ArrayList<>();
+        for (int issueId : issueIds) {
+            results.add(new BulkUpdateResult(issueId, false, message));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,27 @@
+package com.uon.itportal.controllers;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import model.CacheStatistics;
+import model.CredentialCache;
+import model.IssueCache;
+
+@Controller
+public class CacheStatisticsController {
+
+    @GetMapping("/cache-statistics")
+    @ResponseBody
+    public Map<String, CacheStatistics> cacheStatistics() {
+        // Hit, miss and eviction counts of each in-process cache, returned as JSON
+        Map<String, CacheStatistics> statistics = new LinkedHashMap<>();
+        statistics.put("issues", IssueCache.getStatistics());
+        statistics.put("credentials", CredentialCache.getStatistics());
+        statistics.put("unknownUsernames", CredentialCache.getNegativeStatistics());
+        return statistics;
+    }
+}
@@ -1,8 +1,6 @@
 package com.uon.itportal.controllers;
 
 import java.sql.SQLException;
-import java.util.Map;
-import java.util.HashMap;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -10,42 +8,36 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 
 import model.Issue;
+import model.IssueCache;
 
 @Controller
 public class IssueViewController {
 
-    private static Map<Integer, Issue> issueDatabase = new HashMap<>();
-
-    static {
-        try {
-            // Populate the issueDatabase with data from the database
-            for (Issue issue : Issue.getAllIssues()) {
-                issueDatabase.put(issue.issueId(), issue);
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-    }
-
     @GetMapping("/user-view-issue/{id}")
     public String userViewIssue(@PathVariable("id") int issueId, Model model) {
-        Issue issue = issueDatabase.get(issueId);
-        if (issue != null) {
-            model.addAttribute("issue", issue);
-        } else {
-            model.addAttribute("error", "Issue not found.");
-        }
+        addIssue(issueId, model);
         return "user_view_issue";
     }
 
     @GetMapping("/manager-view-issue/{id}")
     public String managerViewIssue(@PathVariable("id") int issueId, Model model) {
-        Issue issue = issueDatabase.get(issueId);
-        if (issue != null) {
-            model.addAttribute("issue", issue);
-        } else {
-            model.addAttribute("error", "Issue not found.");
-        }
+        addIssue(issueId, model);
         return "manager_view_issue";
     }
+
+    private void addIssue(int issueId, Model model) {
+        try {
+            // Look the issue up through the bounded issue cache
+            Issue issue = IssueCache.getIssue(issueId);
+            if (issue != null) {
+                model.addAttribute("issue", issue);
+            } else {
+                model.addAttribute("error", "Issue not found.");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // Handle the exception, e.g., add an error message to the model
+            model.addAttribute("error", "Error retrieving issue: " + e.getMessage());
+        }
+    }
 }
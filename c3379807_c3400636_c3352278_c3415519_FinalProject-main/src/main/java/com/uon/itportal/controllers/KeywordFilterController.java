@@ -0,0 +1,53 @@
+package com.uon.itportal.controllers;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import model.KeywordFilter;
+import model.KeywordIndex;
+import model.ReferenceData;
+
+@Controller
+public class KeywordFilterController {
+
+    private static final int MAX_ISSUE_IDS = 1000;
+
+    @GetMapping("/issue-keywords/filter")
+    @ResponseBody
+    public KeywordFilterResult filter(
+            @RequestParam(value = "all", required = false) List<Integer> all,
+            @RequestParam(value = "any", required = false) List<Integer> any,
+            @RequestParam(value = "not", required = false) List<Integer> not,
+            @RequestParam(value = "categoryId", required = false) Integer categoryId,
+            @RequestParam(value = "stateId", required = false) Integer stateId) throws SQLException {
+        // e.g. ?all=1,2&not=3 for issues with keywords 1 and 2 but not 3
+        KeywordFilter filter = new KeywordFilter(toSet(all), toSet(any), toSet(not), categoryId, stateId);
+
+        int[] issueIds = KeywordIndex.getMatchingIssueIds(filter);
+
+        // Per-keyword counts within the matching issues, by keyword name
+        Map<String, Integer> keywordCounts = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : KeywordIndex.getKeywordCounts(filter).entrySet()) {
+            String name = ReferenceData.getKeywordName(entry.getKey());
+            keywordCounts.put(name != null ? name : "#" + entry.getKey(), entry.getValue());
+        }
+
+        return new KeywordFilterResult(issueIds.length, Arrays.copyOf(issueIds, Math.min(issueIds.length, MAX_ISSUE_IDS)), keywordCounts);
+    }
+
+    private Set<Integer> toSet(List<Integer> ids) {
+        return ids == null ? Set.of() : Set.copyOf(ids);
+    }
+
+    // Matching issue count, the first matching issue IDs and the keyword facet counts
+    public record KeywordFilterResult(int count, int[] issueIds, Map<String, Integer> keywordCounts) {}
+}
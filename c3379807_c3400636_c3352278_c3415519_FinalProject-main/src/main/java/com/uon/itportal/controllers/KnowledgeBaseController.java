@@ -1,50 +1,76 @@
 package com.uon.itportal.controllers;
 
-import java.util.ArrayList;
-import java.util.Date;
-import java.util.List;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 
-import model.Issue;
+import model.KnowledgeBaseArticle;
+import model.KnowledgeBaseIndex;
+import model.KnowledgeBasePage;
+import model.PopularityTracker;
 
 @Controller
 public class KnowledgeBaseController {
 
-    private List<Issue> knowledgeBaseArticles = new ArrayList<>();
+    @Value("${itportal.knowledge-base.page-size:20}")
+    private int pageSize;
 
-    public KnowledgeBaseController() {
-        // Mock data for demonstration
-        knowledgeBaseArticles.add(new Issue(1, "Issue 1", "Description for issue 1", "Resolution for issue 1", 101, "Category 1", 201, "Resolved", new Date(System.currentTimeMillis() - 86400000 * 14), new Date(System.currentTimeMillis() - 86400000 * 7), 301, "Reporter 1", 401, "Assignee 1"));
+    @GetMapping("/knowledge-articles")
+    public String viewKnowledgeArticles(
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "page", required = false, defaultValue = "1") int page,
+            Model model) {
+        try {
+            // Category names and article counts come from the in-process knowledge base index
+            Map<String, Integer> categoryCounts = KnowledgeBaseIndex.getCategoryCounts();
 
-        knowledgeBaseArticles.add(new Issue(2, "Issue 2", "Description for issue 2", "Resolution for issue 2", 102, "Category 2", 202, "Resolved", new Date(System.currentTimeMillis() - 86400000 * 20), new Date(System.currentTimeMillis() - 86400000 * 10), 302, "Reporter 2", 402, "Assignee 2"));
+            model.addAttribute("categoryCounts", categoryCounts);
+            model.addAttribute("selectedCategory", category);
 
-        knowledgeBaseArticles.add(new Issue(3, "Issue 3", "Description for issue 3", "Resolution for issue 3", 103, "Category 1", 203, "Resolved", new Date(System.currentTimeMillis() - 86400000 * 10), new Date(System.currentTimeMillis() - 86400000 * 5), 303, "Reporter 3", 403, "Assignee 3"));
+            if (category != null && !category.isEmpty()) {
+                // A single category is a map lookup, paged within the category
+                model.addAttribute("categoryPage", KnowledgeBaseIndex.getPage(category, page, Math.max(1, pageSize)));
+            } else {
+                // Otherwise show the first page of every category, each linking to the rest of its articles
+                Map<String, KnowledgeBasePage> articlesByCategory = new LinkedHashMap<>();
+                for (String name : categoryCounts.keySet()) {
+                    articlesByCategory.put(name, KnowledgeBaseIndex.getPage(name, 1, Math.max(1, pageSize)));
+                }
+                model.addAttribute("articlesByCategory", articlesByCategory);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // Handle the exception, e.g., add an error message to the model
+            model.addAttribute("error", "Error retrieving knowledge base articles: " + e.getMessage());
+        }
 
-        knowledgeBaseArticles.add(new Issue(4, "Issue 4", "Description for issue 4", "Resolution for issue 4", 104, "Category 3", 204, "Resolved", new Date(System.currentTimeMillis() - 86400000 * 18), new Date(System.currentTimeMillis() - 86400000 * 9), 304, "Reporter 4", 404, "Assignee 4"));
+        return "knowledge_articles";
     }
 
-    @GetMapping("/knowledge-articles")
-    public String viewKnowledgeArticles(@RequestParam(value = "category", required = false) String category, Model model) {
-        // Grouping articles by category
-        Map<String, List<Issue>> articlesByCategory = knowledgeBaseArticles.stream()
-                .collect(Collectors.groupingBy(Issue::category));
-
-        model.addAttribute("articlesByCategory", articlesByCategory);
-        model.addAttribute("selectedCategory", category);
-
-        if (category != null && !category.isEmpty()) {
-            List<Issue> filteredArticles = articlesByCategory.getOrDefault(category, new ArrayList<>());
-            model.addAttribute("filteredArticles", filteredArticles);
-        } else {
-            model.addAttribute("filteredArticles", new ArrayList<>());
+    @GetMapping("/knowledge-articles/{id}")
+    public String viewKnowledgeArticle(@PathVariable("id") int knowledgeBaseId, Model model) {
+        try {
+            KnowledgeBaseArticle article = KnowledgeBaseIndex.getArticle(knowledgeBaseId);
+
+            if (article != null) {
+                // Counted in memory; the counts are written to the database in batches
+                PopularityTracker.recordView(knowledgeBaseId);
+                model.addAttribute("article", article);
+            } else {
+                model.addAttribute("error", "Knowledge base article not found.");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            model.addAttribute("error", "Error retrieving knowledge base article: " + e.getMessage());
         }
 
-        return "knowledge_articles";
+        return "knowledge_article";
     }
 }
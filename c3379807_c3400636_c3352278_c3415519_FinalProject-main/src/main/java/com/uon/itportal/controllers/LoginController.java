@@ -1,7 +1,8 @@
 package com.uon.itportal.controllers;
 
 import java.sql.SQLException;
-import model.User;
+import model.CredentialCache;
+import model.Credentials;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,11 +23,11 @@ public class LoginController {
             @RequestParam("password") String password,
             Model model) {
         try {
-            // Authenticate the user by username
-            User user = User.getUserByUsername(username);
-            if (user != null && user.password().equals(password)) {
+            // Authenticate the user by username, through the credential cache
+            Credentials credentials = CredentialCache.getCredentials(username);
+            if (credentials != null && credentials.password().equals(password)) {
                 // User is authenticated
-                model.addAttribute("user", user);
+                model.addAttribute("username", credentials.username());
                 return "redirect:/dashboard"; // Redirect to a dashboard or home page
             } else {
                 // Authentication failed
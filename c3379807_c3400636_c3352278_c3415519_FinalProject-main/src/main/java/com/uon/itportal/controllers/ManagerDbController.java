@@ -1,47 +1,93 @@
 package com.uon.itportal.controllers;
 
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import model.Issue;
+import model.Category;
+import model.IssueStatistics;
+import model.IssueCursor;
+import model.IssueFilter;
+import model.IssuePage;
+import model.IssueSummary;
+import model.ReferenceData;
+import model.SortDirection;
 
 @Controller
 public class ManagerDbController {
 
+    private static final int MAX_OLDEST_OPEN = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    // How many of the longest unresolved issues the dashboard lists, unless the request asks for another number
+    @Value("${itportal.dashboard.oldest-open-count:10}")
+    private int oldestOpenCount;
+
     @GetMapping("/manager-dashboard")
-    public String managerDashboard(Model model) {
-        List<Issue> issues = new ArrayList<>();
-
-        // This is SAMPLE DATA TO TEST VIEWS REMOVE LATER
-        issues.add(new Issue(1, "Issue 1", "Description 1", "Resolution 1", 101, "Category 1", 201, 
-                "open", new Date(), null, 301, "Reporter 1", 401, "Assignee 1"));
-        issues.add(new Issue(2, "Issue 2", "Description 2", "Resolution 2", 102, "Category 2", 202, 
-                "resolved", new Date(System.currentTimeMillis() - 86400000 * 7), new 
-                Date(System.currentTimeMillis() - 86400000 * 2), 302, "Reporter 2", 402, "Assignee 2"));
-
-        // Calculate resolving time for each issue and create a DTO list
-        List<IssueDTO> issueDTOs = issues.stream()
-            .map(issue -> {
-                Long resolvingTime = calculateResolvingTime(issue.dateReported(), issue.state());
-                return new IssueDTO(issue, resolvingTime);
-            })
-            .collect(Collectors.toList());
-
-        model.addAttribute("issues", issueDTOs);
+    public String managerDashboard(
+            @RequestParam(value = "after", required = false) String after,
+            @RequestParam(value = "before", required = false) String before,
+            @RequestParam(value = "size", required = false, defaultValue = "25") int size,
+            @RequestParam(value = "oldest", required = false) Integer oldest,
+            @RequestParam(value = "categoryId", required = false) Integer categoryId,
+            @RequestParam(value = "assignedToId", required = false) Integer assignedToId,
+            Model model) {
+        try {
+            // Retrieve a single page of the issues, newest first, as the all issues list does
+            int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+            IssuePage page = IssueSummary.getIssueSummariesPage(IssueFilter.none(), pageSize, IssueCursor.decode(after), IssueCursor.decode(before), SortDirection.DESCENDING);
+
+            // Calculate resolving time for each issue and create a DTO list
+            List<IssueDTO> issueDTOs = page.issues().stream()
+                .map(issue -> {
+                    Long resolvingTime = calculateResolvingTime(issue.dateReported(), issue.state());
+                    return new IssueDTO(issue, resolvingTime);
+                })
+                .collect(Collectors.toList());
+
+            model.addAttribute("issues", issueDTOs);
+            model.addAttribute("pageSize", pageSize);
+            model.addAttribute("previousCursor", page.hasPrevious() ? page.previousCursor().encode() : null);
+            model.addAttribute("nextCursor", page.hasNext() ? page.nextCursor().encode() : null);
+
+            // The oldest open issue selection, kept when moving between pages
+            StringBuilder oldestQuery = new StringBuilder();
+            if (oldest != null) {
+                oldestQuery.append("&oldest=").append(oldest);
+            }
+            if (categoryId != null) {
+                oldestQuery.append("&categoryId=").append(categoryId);
+            }
+            if (assignedToId != null) {
+                oldestQuery.append("&assignedToId=").append(assignedToId);
+            }
+            model.addAttribute("oldestQuery", oldestQuery.toString());
+
+            // Oldest open issues, read from the ordered index kept by the statistics engine
+            int count = Math.max(1, Math.min(oldest != null ? oldest : oldestOpenCount, MAX_OLDEST_OPEN));
+            model.addAttribute("oldestOpenIssues", IssueStatistics.getOldestOpenIssues(count, categoryId, assignedToId));
+            model.addAttribute("categoryNames", ReferenceData.getAllCategories().stream()
+                .collect(Collectors.toMap(Category::categoryId, Category::category)));
+        } catch (SQLException e) {
+            e.printStackTrace();
+            // Handle the exception, e.g., add an error message to the model
+            model.addAttribute("error", "Error retrieving issues: " + e.getMessage());
+        }
         return "manager_dashboard";
     }
 
     private Long calculateResolvingTime(Date dateReported, String state) {
-        if ("resolved".equals(state)) {
+        if ("Resolved".equalsIgnoreCase(state) || "Completed".equalsIgnoreCase(state)) {
             return null; // Resolved issues do not need resolving time
         }
         LocalDate reportedDate = dateReported.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
@@ -50,5 +96,5 @@ public class ManagerDbController {
     }
 
     // DTO class to hold issue data along with resolving time
-    public record IssueDTO(Issue issue, Long resolvingTime) {}
+    public record IssueDTO(IssueSummary issue, Long resolvingTime) {}
 }
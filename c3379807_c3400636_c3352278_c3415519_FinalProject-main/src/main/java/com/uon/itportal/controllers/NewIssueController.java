@@ -4,45 +4,76 @@ import java.sql.SQLException;
 import java.util.Date;
 import java.util.List;
 
+import model.AssignmentEngine;
+import model.Category;
 import model.Issue;
-import model.Keyword;
-import model.User;
+import model.IssueKeyword;
+import model.ReferenceData;
+import model.SearchResult;
+import model.SimilarityIndex;
+import model.State;
+import model.UnitOfWork;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
 @Controller
 public class NewIssueController {
 
+    private static final int MAX_SUGGESTIONS = 5;
+
     @GetMapping("/new-issue")
     public String newIssueForm(Model model) {
         try {
-            // Retrieve all users and keywords to populate the form
-            List<User> users = User.getAllUsers();
-            List<Keyword> keywords = Keyword.getAllKeywords();
+            // Retrieve the categories from the reference data cache; keywords are looked up through /autocomplete as the user types
+            List<Category> categories = ReferenceData.getAllCategories();
 
-            model.addAttribute("users", users);
-            model.addAttribute("keywords", keywords);
+            model.addAttribute("categories", categories);
         } catch (SQLException e) {
             e.printStackTrace();
             // Handle the exception, e.g., add an error message to the model
-            model.addAttribute("error", "Error retrieving users or keywords: " + e.getMessage());
+            model.addAttribute("error", "Error retrieving categories: " + e.getMessage());
         }
         return "new_issue";
     }
 
+    @GetMapping("/new-issue/suggestions")
+    @ResponseBody
+    public List<SearchResult> suggestSimilar(
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "description", required = false) String description) throws SQLException {
+        // Near-duplicate issues and knowledge base articles for the text typed so far, returned as JSON
+        String text = (title == null ? "" : title) + " " + (description == null ? "" : description);
+        return SimilarityIndex.findSimilar(text, MAX_SUGGESTIONS);
+    }
+
     @PostMapping("/new-issue")
     public String submitNewIssue(
             @RequestParam("title") String title,
             @RequestParam("description") String description,
             @RequestParam("categoryId") int categoryId,
             @RequestParam("reportedById") int reportedById,
-            @RequestParam("assignedToId") int assignedToId,
+            @RequestParam(value = "assignedToId", required = false, defaultValue = "0") int assignedToId,
             @RequestParam(value = "keywords", required = false) List<Integer> keywordIds,
             Model model) {
+        int reservedStaffId = 0;
+        boolean saved = false;
         try {
+            // Without a chosen assignee, the least loaded IT Staff member for the category takes the issue
+            if (assignedToId == 0) {
+                reservedStaffId = AssignmentEngine.reserveStaff(categoryId);
+                assignedToId = reservedStaffId;
+            }
+
+            // Every issue needs an assignee, so there is nothing to save if no IT Staff member exists
+            if (assignedToId == 0) {
+                model.addAttribute("error", "No IT staff member is available to take the issue. Please try again later.");
+                return "new_issue_success";
+            }
+
             // Create a new Issue object
             Issue newIssue = new Issue(
                     0, // issueId will be generated by the database
@@ -51,7 +82,7 @@ public class NewIssueController {
                     null, // resolutionDetails will be null initially
                     categoryId,
                     null, // category will be set by the database view
-                    1, // stateId for "New"
+                    State.NEW, // stateId for "New"
                     "New", // initial state
                     new Date(), // dateReported is the current date
                     null, // dateResolved is null initially
@@ -61,15 +92,17 @@ public class NewIssueController {
                     null // assignedToFullName will be set by the database view
             );
 
-            // Insert the new issue into the database
-            Issue.insertIssue(newIssue);
+            // Insert the new issue and its keywords in one transaction on one connection
+            try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+                int issueId = Issue.insertIssue(newIssue);
 
-            // Insert keywords if provided
-            if (keywordIds != null) {
-                for (int keywordId : keywordIds) {
-                    IssueKeyword issueKeyword = new IssueKeyword(0, keywordId, null, newIssue.issueId(), null);
-                    IssueKeyword.insertIssueKeyword(issueKeyword);
+                // Insert keywords if provided
+                if (keywordIds != null) {
+                    IssueKeyword.insertIssueKeywords(issueId, keywordIds);
                 }
+
+                unitOfWork.commit();
+                saved = true;
             }
 
             // Add a success message to the model
@@ -78,6 +111,11 @@ public class NewIssueController {
             e.printStackTrace();
             // Handle the exception, e.g., add an error message to the model
             model.addAttribute("error", "Error reporting issue: " + e.getMessage());
+        } finally {
+            // Give the reservation back if the issue was not saved, whatever went wrong
+            if (reservedStaffId != 0 && !saved) {
+                AssignmentEngine.releaseStaff(reservedStaffId);
+            }
         }
         return "new_issue_success";
     }
@@ -0,0 +1,35 @@
+package com.uon.itportal.controllers;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import model.SearchIndex;
+import model.SearchResult;
+
+@Controller
+public class SearchController {
+
+    private static final int MAX_RESULTS = 50;
+
+    @GetMapping("/search")
+    @ResponseBody
+    public List<SearchResult> search(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "type", required = false) String type,
+            @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) throws SQLException {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+
+        // Only "issue" and "article" narrow the search; anything else searches both
+        String searchType = SearchIndex.ISSUE.equals(type) || SearchIndex.ARTICLE.equals(type) ? type : null;
+
+        // Ranked matches from the in-memory index, returned as JSON
+        return SearchIndex.search(query, searchType, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+}
@@ -8,7 +8,9 @@ import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import model.ReferenceData;
 import model.User;
+import model.UserRole;
 
 @Controller
 public class SignupController {
@@ -16,9 +18,9 @@ public class SignupController {
     @GetMapping("/signup")
     public String signup(Model model) {
         try {
-            // Retrieve all roles to populate a dropdown in the signup form
-            List<User> users = User.getAllUsers();
-            model.addAttribute("users", users);
+            // Retrieve all roles from the reference data cache to populate a dropdown in the signup form
+            List<UserRole> roles = ReferenceData.getAllUserRoles();
+            model.addAttribute("roles", roles);
         } catch (SQLException e) {
             e.printStackTrace();
             // Handle the exception, e.g., add an error message to the model
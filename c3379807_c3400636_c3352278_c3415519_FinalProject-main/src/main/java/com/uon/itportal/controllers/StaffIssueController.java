@@ -1,5 +1,6 @@
 package com.uon.itportal.controllers;
 
+import java.sql.SQLException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -12,6 +13,11 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import model.Issue;
+import model.IssueCache;
+import model.KnowledgeBaseArticle;
+import model.KnowledgeBaseIndex;
+import model.State;
+import model.UnitOfWork;
 
 @Controller
 public class StaffIssueController {
@@ -43,8 +49,7 @@ public class StaffIssueController {
 
     @GetMapping("/staff-view-issue/{id}")
     public String staffViewIssue(@PathVariable("id") int issueId, Model model) {
-        Issue issue = issueDatabase.get(issueId);
-        model.addAttribute("issue", issue);
+        addIssue(issueId, model);
         return "staff_view_issue";
     }
 
@@ -58,16 +63,28 @@ public class StaffIssueController {
     }
 
     @PostMapping("/staff-view-issue/{id}/resolve")
-    public String resolveIssue(@PathVariable("id") int issueId, @RequestParam("resolution") String resolution, Model model) {
-        Issue issue = issueDatabase.get(issueId);
-        if (issue != null) {
-            issue = new Issue(issue.issueId(), issue.title(), issue.description(), resolution, 
-                issue.categoryId(), issue.category(), issue.stateId(), "resolved", issue.dateReported(), new 
-                Date(), issue.reportedById(), issue.reportedByFullName(), issue.assignedToId(), 
-                issue.assignedToFullName());
-            issueDatabase.put(issueId, issue);
+    public String resolveIssue(@PathVariable("id") int issueId, @RequestParam("resolution") String resolution,
+            @RequestParam(value = "knowledgeBaseId", required = false) Integer knowledgeBaseId, Model model) {
+        try {
+            // Check the article first, so a mistyped ID does not resolve the issue without its link
+            if (knowledgeBaseId != null && KnowledgeBaseIndex.getArticle(knowledgeBaseId) == null) {
+                model.addAttribute("error", "There is no knowledge base article " + knowledgeBaseId + ".");
+            } else {
+                // Resolve the issue and link the article in one transaction
+                try (UnitOfWork unitOfWork = UnitOfWork.begin()) {
+                    if (Issue.resolveIssue(issueId, State.RESOLVED, resolution, new Date()) == 0) {
+                        model.addAttribute("error", "The issue could not be resolved. It may already be resolved or have been changed by someone else.");
+                    } else if (knowledgeBaseId != null) {
+                        KnowledgeBaseArticle.linkResolvedIssue(knowledgeBaseId, issueId);
+                    }
+                    unitOfWork.commit();
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            model.addAttribute("error", "Error resolving issue: " + e.getMessage());
         }
-        model.addAttribute("issue", issue);
+        addIssue(issueId, model);
         return "staff_view_issue";
     }
 
@@ -98,4 +115,18 @@ public class StaffIssueController {
         model.addAttribute("issue", issue);
         return "staff_view_issue";
     }
+
+    private void addIssue(int issueId, Model model) {
+        try {
+            Issue issue = IssueCache.getIssue(issueId);
+            if (issue != null) {
+                model.addAttribute("issue", issue);
+            } else {
+                model.addAttribute("error", "Issue not found.");
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            model.addAttribute("error", "Error retrieving issue: " + e.getMessage());
+        }
+    }
 }
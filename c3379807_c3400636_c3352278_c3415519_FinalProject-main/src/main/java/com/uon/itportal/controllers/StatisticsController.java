@@ -1,70 +1,80 @@
 package com.uon.itportal.controllers;
 
 import java.sql.SQLException;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.stream.Collectors;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
-import model.Issue;
+import model.IssueColumns;
+import model.IssueStatistics;
+import model.SqlIssueStatistics;
+import model.StatisticsSnapshot;
 
 @Controller
 public class StatisticsController {
 
-    @GetMapping("/view-statistics")
-    public String viewStatistics(Model model) {
-        try {
-            // Retrieve all issues from the database
-            List<Issue> issues = Issue.getAllIssues();
+    // "memory" reads the live counters, "sql" runs GROUP BY queries against the database and its daily rollup
+    @Value("${itportal.statistics.source:memory}")
+    private String statisticsSource;
 
-            // Number of issues in each category
-            Map<String, Long> issuesPerCategory = issues.stream()
-                    .collect(Collectors.groupingBy(Issue::category, Collectors.counting()));
+    private static final int DEFAULT_PERCENTILE_WINDOW_DAYS = 30;
+    private static final long HOUR_MILLIS = 3600000L;
 
-            // Number of issues in each status
-            Map<String, Long> issuesPerStatus = issues.stream()
-                    .collect(Collectors.groupingBy(Issue::state, Collectors.counting()));
+    // Target time to resolve an issue, for the SLA compliance table
+    @Value("${itportal.statistics.sla-target-hours:72}")
+    private int slaTargetHours;
 
-            // Number of issues each IT staff is working on
-            Map<String, Long> issuesPerStaff = issues.stream()
-                    .filter(issue -> issue.assignedToFullName() != null)
-                    .collect(Collectors.groupingBy(Issue::assignedToFullName, Collectors.counting()));
+    @GetMapping("/view-statistics")
+    public String viewStatistics(
+            @RequestParam(value = "from", required = false) String from,
+            @RequestParam(value = "to", required = false) String to,
+            Model model) {
+        try {
+            // Read a consistent snapshot of the statistics from the configured source
+            StatisticsSnapshot statistics = "sql".equalsIgnoreCase(statisticsSource)
+                    ? SqlIssueStatistics.getSnapshot()
+                    : IssueStatistics.getSnapshot();
 
-            // Average time for an issue to get resolved in the last 30 days
-            long currentTime = System.currentTimeMillis();
-            List<Issue> resolvedIssues = issues.stream()
-                    .filter(issue -> "Resolved".equalsIgnoreCase(issue.state()) && issue.dateResolved() != null)
-                    .filter(issue -> (currentTime - issue.dateResolved().getTime()) <= 86400000L * 30)
-                    .collect(Collectors.toList());
-            double averageResolutionTime = resolvedIssues.stream()
-                    .mapToLong(issue -> (issue.dateResolved().getTime() - issue.dateReported().getTime()) / 86400000L)
-                    .average()
-                    .orElse(0);
+            // Add the statistics to the model
+            model.addAttribute("issuesPerCategory", statistics.issuesPerCategory());
+            model.addAttribute("issuesPerStatus", statistics.issuesPerStatus());
+            model.addAttribute("issuesPerStaff", statistics.issuesPerStaff());
+            model.addAttribute("averageResolutionTime", statistics.averageResolutionTime());
+            model.addAttribute("top5LongestUnresolvedIssues", statistics.longestUnresolvedIssues());
 
-            // Top 5 longest unresolved issues
-            List<Issue> top5LongestUnresolvedIssues = issues.stream()
-                    .filter(issue -> !"Resolved".equalsIgnoreCase(issue.state()))
-                    .sorted((i1, i2) -> Long.compare(i2.dateReported().getTime(), i1.dateReported().getTime()))
-                    .limit(5)
-                    .collect(Collectors.toList());
+            // Resolution time percentiles and SLA compliance over the requested window
+            LocalDate toDate = to == null || to.isBlank() ? LocalDate.now(IssueStatistics.getZone()) : LocalDate.parse(to);
+            LocalDate fromDate = from == null || from.isBlank() ? toDate.minusDays(DEFAULT_PERCENTILE_WINDOW_DAYS - 1) : LocalDate.parse(from);
+            model.addAttribute("percentilesFrom", fromDate);
+            model.addAttribute("percentilesTo", toDate);
+            model.addAttribute("slaTargetHours", slaTargetHours);
 
-            // Add the statistics to the model
-            model.addAttribute("issuesPerCategory", issuesPerCategory);
-            model.addAttribute("issuesPerStatus", issuesPerStatus);
-            model.addAttribute("issuesPerStaff", issuesPerStaff);
-            model.addAttribute("averageResolutionTime", averageResolutionTime);
-            model.addAttribute("top5LongestUnresolvedIssues", top5LongestUnresolvedIssues);
+            if ("sql".equalsIgnoreCase(statisticsSource)) {
+                model.addAttribute("percentilesPerCategory", SqlIssueStatistics.getResolutionPercentilesByCategory(fromDate, toDate));
+                model.addAttribute("percentilesPerStaff", SqlIssueStatistics.getResolutionPercentilesByStaff(fromDate, toDate));
+                model.addAttribute("slaCompliance", SqlIssueStatistics.getSlaCompliance(slaTargetHours, fromDate, toDate));
+            } else {
+                model.addAttribute("percentilesPerCategory", IssueStatistics.getResolutionPercentilesByCategory(fromDate, toDate));
+                model.addAttribute("percentilesPerStaff", IssueStatistics.getResolutionPercentilesByStaff(fromDate, toDate));
+
+                // Percentiles merged from the daily sketches, SLA compliance from the columnar snapshot
+                long fromMillis = fromDate.atStartOfDay(IssueStatistics.getZone()).toInstant().toEpochMilli();
+                long toMillis = toDate.plusDays(1).atStartOfDay(IssueStatistics.getZone()).toInstant().toEpochMilli();
+                model.addAttribute("slaCompliance", IssueColumns.getSnapshot().getSlaCompliance(slaTargetHours * HOUR_MILLIS, fromMillis, toMillis));
+            }
 
         } catch (SQLException e) {
             e.printStackTrace();
             // Handle the exception, e.g., add an error message to the model
             model.addAttribute("error", "Error retrieving statistics: " + e.getMessage());
+        } catch (DateTimeParseException e) {
+            model.addAttribute("error", "Dates must be in the format yyyy-MM-dd");
         }
-        return "view_statistics";
+        return "view_statistic";
     }
 }
@@ -8,8 +8,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
-import model.Issue;
-import model.User;
+import model.IssueSummary;
 
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -21,8 +20,8 @@ public class UserDbController {
     @GetMapping("/user-dashboard")
     public String userDashboard(Model model) {
         try {
-            // Retrieve all issues for the user
-            List<Issue> issues = Issue.getAllIssues();
+            // Retrieve a summary of all issues for the user
+            List<IssueSummary> issues = IssueSummary.getAllIssueSummaries();
 
             // Calculate resolving time for each issue and create a DTO list
             List<IssueDTO> issueDTOs = issues.stream()
@@ -52,5 +51,5 @@ public class UserDbController {
     }
 
     // DTO class to hold issue data along with resolving time
-    public static record IssueDTO(Issue issue, Long resolvingTime) {}
+    public static record IssueDTO(IssueSummary issue, Long resolvingTime) {}
 }
@@ -0,0 +1,115 @@
+package model;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Represents the popularity of a knowledge base article: how often it was viewed, how many resolved
+ * issues it is linked from, and a score that weighs both and halves every half-life.
+ * As a change, the same fields hold the views, links and score added since the last write.
+ */
+public record ArticlePopularity
+(
+    int knowledgeBaseId,
+    long viewCount,
+    long linkCount,
+    double score
+)
+{
+    /**
+     * Retrieves the popularity of every knowledge base article that has been viewed or linked.
+     *
+     * @param _halfLifeHours The number of hours after which a score has halved
+     * @return A list of ArticlePopularity objects, with each score decayed to the current time.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<ArticlePopularity> getAllArticlePopularity(double _halfLifeHours) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT kb_id, view_count, link_count,
+                           score * POWER(0.5, DATEDIFF(second, score_updated, GETDATE()) / (3600.0 * ?)) AS score
+                    FROM [Knowledge_Base_Popularity];
+                    """
+            );
+            query.setDouble(1, _halfLifeHours);
+
+            var resultSet = query.executeQuery();
+
+            var popularity = new LinkedList<ArticlePopularity>();
+
+            while (resultSet.next())
+            {
+                int knowledgeBaseId = resultSet.getInt("kb_id");
+                long viewCount = resultSet.getLong("view_count");
+                long linkCount = resultSet.getLong("link_count");
+                double score = resultSet.getDouble("score");
+
+                popularity.add(new ArticlePopularity(knowledgeBaseId, viewCount, linkCount, score));
+            }
+
+            return popularity;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Adds views, links and score to the popularity of articles in one batch and one transaction.
+     * The stored score is decayed to the current time before the new score is added. Changes for
+     * articles that have been deleted are skipped.
+     *
+     * @param _changes The views, links and score to add to each article
+     * @param _halfLifeHours The number of hours after which a score has halved
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void addArticlePopularity(Collection<ArticlePopularity> _changes, double _halfLifeHours) throws SQLException
+    {
+        if (_changes.isEmpty())
+        {
+            return;
+        }
+
+        try (var unitOfWork = UnitOfWork.begin())
+        {
+            var connection = ConfigBean.getConnection();
+
+            var query = connection.prepareStatement(
+                    """
+                    MERGE [Knowledge_Base_Popularity] AS target
+                    USING (SELECT ? AS kb_id, ? AS views, ? AS links, ? AS score) AS delta
+                    ON target.kb_id = delta.kb_id
+                    WHEN MATCHED THEN
+                        UPDATE SET view_count = target.view_count + delta.views,
+                                   link_count = target.link_count + delta.links,
+                                   score = target.score * POWER(0.5, DATEDIFF(second, target.score_updated, GETDATE()) / (3600.0 * ?)) + delta.score,
+                                   score_updated = GETDATE()
+                    WHEN NOT MATCHED AND EXISTS (SELECT 1 FROM [Knowledge_Base] WHERE kb_id = delta.kb_id) THEN
+                        INSERT (kb_id, view_count, link_count, score, score_updated)
+                        VALUES (delta.kb_id, delta.views, delta.links, delta.score, GETDATE());
+                    """
+            );
+
+            for (var change : _changes)
+            {
+                query.setInt(1, change.knowledgeBaseId());
+                query.setLong(2, change.viewCount());
+                query.setLong(3, change.linkCount());
+                query.setDouble(4, change.score());
+                query.setDouble(5, _halfLifeHours);
+                query.addBatch();
+            }
+
+            query.executeBatch();
+            unitOfWork.commit();
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Chooses the IT Staff member a new issue is assigned to: the eligible staff member with the fewest
+ * open issues, relative to their skill weight for the issue's category.
+ *
+ * The open issue count of every staff member is kept in memory and ordered in sorted sets, one over
+ * all staff and one per category that has skilled staff, so the least loaded staff member is the first
+ * element of a set and choosing one is O(log S) without reading [VW_Issue]. An issue in a category that
+ * staff are skilled in goes to the least loaded of them, their open issues divided by their weight; an
+ * issue in any other category goes to the least loaded of all staff. The counts are seeded by
+ * {@link #reload()} and then kept up to date from the issue change events, so assignments, state
+ * changes and resolutions made anywhere are reflected. [Staff_Skill] is maintained in the database
+ * directly, so the skills are read again periodically by {@link #reloadSkills()}. All reads and updates hold the engine's lock, so
+ * choosing a staff member and counting the issue against them is one atomic step.
+ */
+public final class AssignmentEngine implements IssueListener
+{
+    private static final String STAFF_ROLE = "IT Staff";
+
+    private static final Comparator<Load> LEAST_LOADED = Comparator.comparingDouble(Load::load).thenComparingInt(Load::staffId);
+
+    private static final AssignmentEngine instance = new AssignmentEngine();
+
+    static
+    {
+        IssueEvents.register(instance);
+    }
+
+    /**
+     * The position of a staff member in one of the sorted sets: their open issues divided by their weight.
+     */
+    private record Load(int staffId, double load)
+    {
+    }
+
+    /**
+     * The open issue count of an IT Staff member, their skill weight per category (empty for a
+     * generalist), and the issues reserved for them by {@link #reserveStaff(int)} that have not been
+     * saved yet.
+     */
+    private static final class Staff
+    {
+        private final int staffId;
+        private final Map<Integer, Double> weights = new HashMap<>();
+        private int openCount;
+        private int reserved;
+
+        private Staff(int _staffId)
+        {
+            staffId = _staffId;
+        }
+    }
+
+    /**
+     * The assignee and open state of an issue, to apply later changes to the right counts.
+     */
+    private record Tracked(int staffId, boolean open)
+    {
+    }
+
+    private final Map<Integer, Staff> staff = new HashMap<>();
+    private final Map<Integer, Tracked> issues = new HashMap<>();
+
+    private final TreeSet<Load> allStaff = new TreeSet<>(LEAST_LOADED);
+    private final Map<Integer, TreeSet<Load>> staffPerCategory = new HashMap<>();
+
+    private boolean loaded;
+
+    private AssignmentEngine()
+    {
+    }
+
+    /**
+     * Reloads the IT Staff, their skills and their open issue counts from the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL queries.
+     */
+    public static void reload() throws SQLException
+    {
+        synchronized (instance)
+        {
+            try
+            {
+                var skills = StaffSkill.getAllStaffSkills();
+                List<Integer> staffIds;
+
+                try (var users = User.streamAllUsers())
+                {
+                    staffIds = users.filter(user -> STAFF_ROLE.equalsIgnoreCase(user.role())).map(User::userId).toList();
+                }
+
+                try (var summaries = IssueSummary.streamIssueSummaries(IssueFilter.none()))
+                {
+                    load(staffIds, skills, summaries);
+                }
+            }
+            catch (RuntimeException e)
+            {
+                if (e.getCause() instanceof SQLException sqlException)
+                {
+                    throw sqlException;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Replaces the IT Staff, their skills and their open issue counts with the given ones.
+     *
+     * @param _staffIds The IDs of the IT Staff
+     * @param _skills The skills of the staff
+     * @param _issues Every issue, to count the open issues of each staff member
+     */
+    static void load(Collection<Integer> _staffIds, List<StaffSkill> _skills, Stream<IssueSummary> _issues)
+    {
+        synchronized (instance)
+        {
+            instance.staff.clear();
+            instance.issues.clear();
+            instance.allStaff.clear();
+            instance.staffPerCategory.clear();
+
+            var weights = weightsByStaff(_skills);
+
+            for (int staffId : _staffIds)
+            {
+                var member = new Staff(staffId);
+                member.weights.putAll(weights.getOrDefault(staffId, Map.of()));
+                instance.staff.put(staffId, member);
+            }
+
+            _issues.forEach(summary ->
+            {
+                var tracked = new Tracked(summary.assignedToId(), State.isOpen(summary.stateId()));
+                instance.issues.put(summary.issueId(), tracked);
+
+                var member = instance.staff.get(tracked.staffId());
+                if (member != null && tracked.open())
+                {
+                    member.openCount++;
+                }
+            });
+
+            instance.staff.values().forEach(instance::index);
+            instance.loaded = true;
+        }
+    }
+
+    /**
+     * Reads the staff skills from the database again and moves every staff member to the sets of the
+     * categories they are now skilled in, keeping the open issue counts.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reloadSkills() throws SQLException
+    {
+        var weightsPerStaff = weightsByStaff(StaffSkill.getAllStaffSkills());
+
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                return;
+            }
+
+            for (var member : instance.staff.values())
+            {
+                var weights = weightsPerStaff.getOrDefault(member.staffId, Map.of());
+
+                if (!weights.equals(member.weights))
+                {
+                    instance.unindex(member);
+                    member.weights.clear();
+                    member.weights.putAll(weights);
+                    instance.index(member);
+                }
+            }
+        }
+    }
+
+    /**
+     * Chooses the least loaded eligible IT Staff member for a new issue and counts the issue against
+     * them straight away, so concurrent new issues are spread out. The reservation is settled when the
+     * issue is saved; if the issue is not saved after all, {@link #releaseStaff(int)} must be called.
+     *
+     * @param _categoryId The category of the new issue
+     * @return The ID of the chosen staff member, or 0 if there are no IT Staff.
+     * @throws SQLException if the engine has not been loaded yet and loading it fails.
+     */
+    public static int reserveStaff(int _categoryId) throws SQLException
+    {
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                reload();
+            }
+
+            var candidates = instance.staffPerCategory.getOrDefault(_categoryId, instance.allStaff);
+
+            if (candidates.isEmpty())
+            {
+                return 0;
+            }
+
+            var member = instance.staff.get(candidates.first().staffId());
+            member.reserved++;
+            instance.changeOpenCount(member, 1);
+            return member.staffId;
+        }
+    }
+
+    /**
+     * Gives back a reservation made by {@link #reserveStaff(int)} for an issue that was not saved.
+     *
+     * @param _staffId The ID of the staff member returned by reserveStaff
+     */
+    public static void releaseStaff(int _staffId)
+    {
+        synchronized (instance)
+        {
+            var member = instance.staff.get(_staffId);
+
+            if (member != null && member.reserved > 0)
+            {
+                member.reserved--;
+                instance.changeOpenCount(member, -1);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of open issues of each IT Staff member, including reserved ones.
+     *
+     * @return A map from staff member ID to their number of open issues.
+     * @throws SQLException if the engine has not been loaded yet and loading it fails.
+     */
+    public static Map<Integer, Integer> getOpenCounts() throws SQLException
+    {
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                reload();
+            }
+
+            var counts = new HashMap<Integer, Integer>();
+            instance.staff.forEach((staffId, member) -> counts.put(staffId, member.openCount));
+            return counts;
+        }
+    }
+
+    /**
+     * Adds, updates or removes a user from the IT Staff once the current unit of work has committed.
+     */
+    static void userSaved(User _user)
+    {
+        UnitOfWork.afterCommit(() ->
+        {
+            String role = _user.role();
+
+            try
+            {
+                if (role == null)
+                {
+                    role = ReferenceData.getRoleName(_user.roleId());
+                }
+            }
+            catch (SQLException e)
+            {
+                e.printStackTrace();
+            }
+
+            instance.putStaff(_user.userId(), STAFF_ROLE.equalsIgnoreCase(role));
+        });
+    }
+
+    @Override
+    public synchronized void issueSaved(Issue _issue)
+    {
+        if (!loaded)
+        {
+            return;
+        }
+
+        var previous = issues.get(_issue.issueId());
+        var member = staff.get(_issue.assignedToId());
+
+        // The first save of an issue assigned through reserveStaff was already counted
+        if (previous == null && member != null && member.reserved > 0 && State.isOpen(_issue.stateId()))
+        {
+            member.reserved--;
+            issues.put(_issue.issueId(), new Tracked(_issue.assignedToId(), true));
+            return;
+        }
+
+        track(_issue.issueId(), _issue.assignedToId(), State.isOpen(_issue.stateId()));
+    }
+
+    @Override
+    public synchronized void issueAssigned(int _issueId, int _staffId)
+    {
+        var previous = issues.get(_issueId);
+
+        if (loaded && previous != null)
+        {
+            track(_issueId, _staffId, previous.open());
+        }
+    }
+
+    @Override
+    public synchronized void issueStateChanged(int _issueId, int _stateId)
+    {
+        var previous = issues.get(_issueId);
+
+        if (loaded && previous != null)
+        {
+            track(_issueId, previous.staffId(), State.isOpen(_stateId));
+        }
+    }
+
+    @Override
+    public synchronized void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        issueStateChanged(_issueId, _stateId);
+    }
+
+    /**
+     * Records the new assignee and open state of an issue, moving its count between staff members as needed.
+     */
+    private void track(int _issueId, int _staffId, boolean _open)
+    {
+        var previous = issues.put(_issueId, new Tracked(_staffId, _open));
+
+        if (previous != null && previous.open() && staff.containsKey(previous.staffId()))
+        {
+            changeOpenCount(staff.get(previous.staffId()), -1);
+        }
+
+        if (_open && staff.containsKey(_staffId))
+        {
+            changeOpenCount(staff.get(_staffId), 1);
+        }
+    }
+
+    private synchronized void putStaff(int _staffId, boolean _isStaff)
+    {
+        if (!loaded)
+        {
+            return;
+        }
+
+        var member = staff.get(_staffId);
+
+        if (_isStaff && member == null)
+        {
+            member = new Staff(_staffId);
+
+            for (var tracked : issues.values())
+            {
+                if (tracked.open() && tracked.staffId() == _staffId)
+                {
+                    member.openCount++;
+                }
+            }
+
+            staff.put(_staffId, member);
+            index(member);
+        }
+        else if (!_isStaff && member != null)
+        {
+            unindex(member);
+            staff.remove(_staffId);
+        }
+    }
+
+    private void changeOpenCount(Staff _member, int _change)
+    {
+        unindex(_member);
+        _member.openCount = Math.max(0, _member.openCount + _change);
+        index(_member);
+    }
+
+    /**
+     * Adds a staff member to the sets they are eligible for, at their current load.
+     */
+    private void index(Staff _member)
+    {
+        if (_member.weights.isEmpty())
+        {
+            allStaff.add(new Load(_member.staffId, _member.openCount));
+            return;
+        }
+
+        // Skilled staff still take part in the fallback over all staff, at their average weight
+        allStaff.add(new Load(_member.staffId, _member.openCount / averageWeight(_member)));
+
+        _member.weights.forEach((categoryId, weight) ->
+                staffPerCategory.computeIfAbsent(categoryId, category -> new TreeSet<>(LEAST_LOADED)).add(new Load(_member.staffId, _member.openCount / weight)));
+    }
+
+    private void unindex(Staff _member)
+    {
+        allStaff.remove(new Load(_member.staffId, _member.weights.isEmpty() ? _member.openCount : _member.openCount / averageWeight(_member)));
+
+        _member.weights.forEach((categoryId, weight) ->
+        {
+            var candidates = staffPerCategory.get(categoryId);
+            candidates.remove(new Load(_member.staffId, _member.openCount / weight));
+
+            if (candidates.isEmpty())
+            {
+                staffPerCategory.remove(categoryId);
+            }
+        });
+    }
+
+    /**
+     * Groups the positive skill weights by staff member, then by category.
+     */
+    private static Map<Integer, Map<Integer, Double>> weightsByStaff(List<StaffSkill> _skills)
+    {
+        var weights = new HashMap<Integer, Map<Integer, Double>>();
+
+        for (var skill : _skills)
+        {
+            if (skill.weight() > 0)
+            {
+                weights.computeIfAbsent(skill.userId(), staffId -> new HashMap<>()).put(skill.categoryId(), skill.weight());
+            }
+        }
+
+        return weights;
+    }
+
+    private static double averageWeight(Staff _member)
+    {
+        double total = 0;
+
+        for (double weight : _member.weights.values())
+        {
+            total += weight;
+        }
+
+        return total / _member.weights.size();
+    }
+}
@@ -0,0 +1,366 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Prefix search over keyword names, user names and issue titles, for the type-ahead fields of the forms.
+ *
+ * Each source keeps its entries in sorted maps keyed by the lower-cased text, so the entries starting
+ * with a prefix are one contiguous range of a map. Whole names are kept in one map and the later words
+ * of each name in another, so "smi" finds "John Smith". Matches at the start of a name rank above
+ * matches on a later word, and matches of the same rank are in alphabetical order, which is the order
+ * of the map: a lookup walks the names first and then the words, and stops as soon as it has enough
+ * suggestions, so the top suggestions are exact however many entries match a short prefix.
+ *
+ * Sources are loaded by {@link #reload()} and updated from the issue change events and the keyword and
+ * user insert and update methods. Lookups read the concurrent maps without locking; updates to a source
+ * are serialised on that source.
+ */
+public final class AutocompleteIndex implements IssueListener
+{
+    /**
+     * Keyword names.
+     */
+    public static final String KEYWORDS = "keywords";
+
+    /**
+     * Full names and usernames of every user.
+     */
+    public static final String USERS = "users";
+
+    /**
+     * Full names and usernames of the IT staff, who issues can be assigned to.
+     */
+    public static final String STAFF = "staff";
+
+    /**
+     * Issue titles.
+     */
+    public static final String ISSUES = "issues";
+
+    private static final String STAFF_ROLE = "IT Staff";
+
+    private static final AutocompleteIndex instance = new AutocompleteIndex();
+
+    static
+    {
+        IssueEvents.register(instance);
+    }
+
+    /**
+     * An indexed name, under one of its index keys.
+     */
+    private record Entry(int id, String label, String detail)
+    {
+    }
+
+    /**
+     * The entries of one source, and the keys of each ID so an entry can be replaced.
+     */
+    private static final class Source
+    {
+        /**
+         * Entries keyed by the whole name.
+         */
+        private final ConcurrentSkipListMap<String, Entry> names = new ConcurrentSkipListMap<>();
+
+        /**
+         * Entries keyed by the name from the start of its second, third... word.
+         */
+        private final ConcurrentSkipListMap<String, Entry> words = new ConcurrentSkipListMap<>();
+
+        private final Map<Integer, List<String>> keys = new HashMap<>();
+
+        private synchronized void put(int _id, String _label, String _detail, String... _names)
+        {
+            remove(_id);
+
+            if (_label == null)
+            {
+                return;
+            }
+
+            var keysOfId = new ArrayList<String>();
+
+            for (var name : _names)
+            {
+                if (name == null)
+                {
+                    continue;
+                }
+
+                var normalized = normalize(name);
+                var entry = new Entry(_id, _label, _detail);
+
+                for (int start = 0; start < normalized.length(); start = next(normalized, start))
+                {
+                    // The ID makes the key unique; \u0000 sorts before any character of a longer prefix
+                    var key = normalized.substring(start) + "\u0000" + _id;
+                    (start == 0 ? names : words).put(key, entry);
+                    keysOfId.add(key);
+                }
+            }
+
+            keys.put(_id, keysOfId);
+        }
+
+        /**
+         * Replaces the detail shown with an entry, if the entry is indexed.
+         */
+        private synchronized void setDetail(int _id, String _detail)
+        {
+            var keysOfId = keys.get(_id);
+
+            if (keysOfId != null)
+            {
+                for (var key : keysOfId)
+                {
+                    names.computeIfPresent(key, (ignored, entry) -> new Entry(entry.id(), entry.label(), _detail));
+                    words.computeIfPresent(key, (ignored, entry) -> new Entry(entry.id(), entry.label(), _detail));
+                }
+            }
+        }
+
+        private synchronized void remove(int _id)
+        {
+            var keysOfId = keys.remove(_id);
+
+            if (keysOfId != null)
+            {
+                for (var key : keysOfId)
+                {
+                    names.remove(key);
+                    words.remove(key);
+                }
+            }
+        }
+
+        private synchronized void clear()
+        {
+            names.clear();
+            words.clear();
+            keys.clear();
+        }
+
+        /**
+         * Returns the start of the word after the one at _start, or the length of the text if there is none.
+         */
+        private static int next(String _text, int _start)
+        {
+            int space = _text.indexOf(' ', _start);
+            return space < 0 ? _text.length() : space + 1;
+        }
+    }
+
+    private final Map<String, Source> sources = Map.of(KEYWORDS, new Source(), USERS, new Source(), STAFF, new Source(), ISSUES, new Source());
+
+    private volatile boolean loaded;
+
+    private AutocompleteIndex()
+    {
+    }
+
+    /**
+     * Reloads every source from the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static synchronized void reload() throws SQLException
+    {
+        instance.sources.values().forEach(Source::clear);
+
+        for (var keyword : ReferenceData.getAllKeywords())
+        {
+            instance.putKeyword(keyword);
+        }
+
+        try (var users = User.streamAllUsers())
+        {
+            users.forEach(user -> instance.putUser(user, user.role()));
+        }
+        catch (RuntimeException e)
+        {
+            if (e.getCause() instanceof SQLException sqlException)
+            {
+                throw sqlException;
+            }
+            throw e;
+        }
+
+        try (var issues = IssueSummary.streamIssueSummaries(IssueFilter.none()))
+        {
+            issues.forEach(issue -> instance.sources.get(ISSUES).put(issue.issueId(), issue.title(), issue.state(), issue.title()));
+        }
+        catch (RuntimeException e)
+        {
+            if (e.getCause() instanceof SQLException sqlException)
+            {
+                throw sqlException;
+            }
+            throw e;
+        }
+
+        instance.loaded = true;
+    }
+
+    /**
+     * Returns the best entries of a source that start with a prefix, or have a word that starts with it.
+     *
+     * @param _source One of {@link #KEYWORDS}, {@link #USERS}, {@link #STAFF} or {@link #ISSUES}
+     * @param _prefix The text typed so far
+     * @param _limit The maximum number of suggestions
+     * @return The matching suggestions, most relevant first; empty for an unknown source or a blank prefix.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static List<Suggestion> complete(String _source, String _prefix, int _limit) throws SQLException
+    {
+        var source = instance.sources.get(_source);
+
+        if (source == null || _prefix == null || _prefix.isBlank() || _limit <= 0)
+        {
+            return List.of();
+        }
+
+        if (!instance.loaded)
+        {
+            reload();
+        }
+
+        var prefix = normalize(_prefix);
+        var suggestions = new ArrayList<Suggestion>(_limit);
+        var suggested = new HashSet<Integer>();
+
+        collect(source.names, prefix, _limit, suggestions, suggested);
+        collect(source.words, prefix, _limit, suggestions, suggested);
+
+        return suggestions;
+    }
+
+    /**
+     * Adds the entries of one map that start with a prefix, in key order, until there are enough
+     * suggestions. An ID already suggested, through an earlier key, is skipped.
+     */
+    private static void collect(ConcurrentSkipListMap<String, Entry> _entries, String _prefix, int _limit, List<Suggestion> _suggestions, Set<Integer> _suggested)
+    {
+        for (var entry : _entries.subMap(_prefix, true, _prefix + Character.MAX_VALUE, false).values())
+        {
+            if (_suggestions.size() >= _limit)
+            {
+                return;
+            }
+
+            if (_suggested.add(entry.id()))
+            {
+                _suggestions.add(new Suggestion(entry.id(), entry.label(), entry.detail()));
+            }
+        }
+    }
+
+    /**
+     * Indexes a keyword once the current unit of work has committed.
+     */
+    static void keywordSaved(Keyword _keyword)
+    {
+        UnitOfWork.afterCommit(() -> instance.putKeyword(_keyword));
+    }
+
+    /**
+     * Indexes a user once the current unit of work has committed.
+     */
+    static void userSaved(User _user)
+    {
+        UnitOfWork.afterCommit(() ->
+        {
+            String role = _user.role();
+
+            try
+            {
+                if (role == null)
+                {
+                    role = ReferenceData.getRoleName(_user.roleId());
+                }
+            }
+            catch (SQLException e)
+            {
+                e.printStackTrace();
+            }
+
+            instance.putUser(_user, role);
+        });
+    }
+
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        if (loaded)
+        {
+            sources.get(ISSUES).put(_issue.issueId(), _issue.title(), _issue.state(), _issue.title());
+        }
+    }
+
+    @Override
+    public void issueStateChanged(int _issueId, int _stateId)
+    {
+        stateChanged(_issueId, _stateId);
+    }
+
+    @Override
+    public void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        stateChanged(_issueId, _stateId);
+    }
+
+    /**
+     * Shows the new state of an issue with its title.
+     */
+    private void stateChanged(int _issueId, int _stateId)
+    {
+        if (!loaded)
+        {
+            return;
+        }
+
+        try
+        {
+            sources.get(ISSUES).setDetail(_issueId, ReferenceData.getStateName(_stateId));
+        }
+        catch (SQLException e)
+        {
+            e.printStackTrace();
+        }
+    }
+
+    private void putKeyword(Keyword _keyword)
+    {
+        sources.get(KEYWORDS).put(_keyword.keywordId(), _keyword.keyword(), null, _keyword.keyword());
+    }
+
+    private void putUser(User _user, String _role)
+    {
+        var fullName = _user.firstName() + " " + _user.lastName();
+        sources.get(USERS).put(_user.userId(), fullName, _user.username(), fullName, _user.username());
+
+        if (STAFF_ROLE.equalsIgnoreCase(_role))
+        {
+            sources.get(STAFF).put(_user.userId(), fullName, _user.username(), fullName, _user.username());
+        }
+        else
+        {
+            sources.get(STAFF).remove(_user.userId());
+        }
+    }
+
+    private static String normalize(String _text)
+    {
+        return String.join(" ", _text.toLowerCase(Locale.ROOT).trim().split("\\s+"));
+    }
+}
@@ -0,0 +1,118 @@
+package model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Loads rows for many issues at once with chunked IN lists, instead of one query
+ * and one connection checkout per issue.
+ */
+final class BatchQueries
+{
+    /**
+     * The largest number of ids sent in one IN list. SQL Server allows 2100 parameters per statement.
+     */
+    static final int MAX_CHUNK_SIZE = 512;
+
+    /**
+     * The smallest IN list sent. Chunks are padded up to a power of two, so only a handful of
+     * distinct statements (and cached plans) exist regardless of how many ids are requested.
+     */
+    private static final int MIN_CHUNK_SIZE = 8;
+
+    private BatchQueries()
+    {
+    }
+
+    /**
+     * Runs "_selectFrom WHERE issueId IN (...)" for the given issue ids and groups the rows by issue.
+     * Every requested id is present in the returned map, mapped to an empty list if it has no rows.
+     *
+     * @param _selectFrom The SELECT and FROM clauses of the query, without a trailing semicolon
+     * @param _issueIds The ids of the issues to load rows for
+     * @param _mapper Maps each row to an object
+     * @param _issueIdOf Extracts the issue id from a mapped object
+     * @return The mapped rows grouped by issue id.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    static <T> Map<Integer, List<T>> groupByIssue(String _selectFrom, Collection<Integer> _issueIds, ResultSetStreams.RowMapper<T> _mapper, ToIntFunction<T> _issueIdOf) throws SQLException
+    {
+        var ids = new ArrayList<>(new LinkedHashSet<>(_issueIds));
+        var grouped = new HashMap<Integer, List<T>>();
+
+        for (int id : ids)
+        {
+            grouped.put(id, new ArrayList<>());
+        }
+
+        if (ids.isEmpty())
+        {
+            return grouped;
+        }
+
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            for (int start = 0; start < ids.size(); start += MAX_CHUNK_SIZE)
+            {
+                var chunk = ids.subList(start, Math.min(start + MAX_CHUNK_SIZE, ids.size()));
+                int paddedSize = paddedSize(chunk.size());
+
+                var query = connection.prepareStatement(_selectFrom + "\nWHERE issueId IN (" + placeholders(paddedSize) + ");");
+
+                for (int i = 0; i < paddedSize; i++)
+                {
+                    // Padding repeats the last id, which does not change the result of the IN list
+                    query.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+
+                var resultSet = query.executeQuery();
+
+                while (resultSet.next())
+                {
+                    T row = _mapper.map(resultSet);
+                    grouped.get(_issueIdOf.applyAsInt(row)).add(row);
+                }
+
+                query.close();
+            }
+
+            return grouped;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Returns the number of parameters to send for an IN list of the given size. The list is padded
+     * by repeating its last id, which does not change the result of the IN list.
+     */
+    static int paddedSize(int _size)
+    {
+        int size = MIN_CHUNK_SIZE;
+
+        while (size < _size)
+        {
+            size *= 2;
+        }
+
+        return Math.min(size, MAX_CHUNK_SIZE);
+    }
+
+    /**
+     * Returns a comma separated list of the given number of ? placeholders.
+     */
+    static String placeholders(int _count)
+    {
+        return "?" + ",?".repeat(_count - 1);
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents the outcome of a bulk update for one issue.
+ *
+ * @param issueId The ID of the issue
+ * @param updated Whether the issue was changed
+ * @param message What happened to the issue, e.g. why it was not changed
+ */
+public record BulkUpdateResult
+(
+    int issueId,
+    boolean updated,
+    String message
+)
+{
+}
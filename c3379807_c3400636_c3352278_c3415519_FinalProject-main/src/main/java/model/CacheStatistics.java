@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Represents a point-in-time snapshot of the statistics of an in-process cache.
+ *
+ * @param size The approximate number of entries in the cache
+ * @param hitCount The number of lookups answered from the cache
+ * @param missCount The number of lookups that had to go to the database
+ * @param evictionCount The number of entries evicted for size or expiry
+ * @param hitRate The ratio of hits to lookups, 1.0 when there were no lookups
+ */
+public record CacheStatistics
+(
+    long size,
+    long hitCount,
+    long missCount,
+    long evictionCount,
+    double hitRate
+)
+{
+}
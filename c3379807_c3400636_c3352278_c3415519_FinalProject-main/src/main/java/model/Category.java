@@ -57,9 +57,10 @@ public record Category
      * Inserts a category in the database.
      *
      * @param _category The category to be inserted.
+     * @return The ID generated for the inserted category.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertCategory(Category _category) throws SQLException
+    public static int insertCategory(Category _category) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -68,10 +69,17 @@ public record Category
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Issue_Category] (category_name) VALUES (?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _category.category());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int categoryId = keys.next() ? keys.getInt(1) : 0;
+
+            ReferenceData.putCategory(new Category(categoryId, _category.category()));
+            return categoryId;
         }
         finally
         {
@@ -99,6 +107,8 @@ public record Category
             query.setString(1, _category.category());
             query.setInt(2, _category.categoryId());
             query.executeUpdate();
+
+            ReferenceData.putCategory(_category);
         }
         finally
         {
@@ -1,9 +1,12 @@
 package model;
 
 import java.sql.*;
+import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Represents a comment of an issue.
@@ -70,13 +73,65 @@ public record Comment
         }
     }
 
+    /**
+     * Retrieves all the comments from the database relating to each of the specified issues, in one round trip per 512 issues.
+     *
+     * @param _issueIds The IDs of the issues that the comments are attached to
+     * @return A map from each issue ID to the list of Comment objects attached to it; issues without comments map to an empty list.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<Integer, List<Comment>> getAllCommentsByIds(Collection<Integer> _issueIds) throws SQLException
+    {
+        return BatchQueries.groupByIssue(
+                """
+                SELECT *
+                FROM [VW_Comment]""",
+                _issueIds,
+                Comment::readComment,
+                Comment::issueId
+        );
+    }
+
+    /**
+     * Streams all the comments from the database, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @return A stream of Comment objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<Comment> streamAllComments() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT *
+                    FROM [VW_Comment];
+                    """,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+
+            return ResultSetStreams.stream(connection, query, Comment::readComment);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
     /**
      * Inserts a comment in the database.
      *
      * @param _comment The comment to be inserted.
+     * @return The ID generated for the inserted comment.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertComment(Comment _comment) throws SQLException
+    public static int insertComment(Comment _comment) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -85,13 +140,17 @@ public record Comment
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Comment] (issue_id, user_id, comment_text, comment_date) VALUES (?,?,?,?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setInt(1, _comment.issueId());
             query.setInt(2, _comment.userId());
             query.setString(3, _comment.commentText());
             query.setDate(4, (java.sql.Date) _comment.commentDate());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            return keys.next() ? keys.getInt(1) : 0;
         }
         finally
         {
@@ -128,4 +187,21 @@ public record Comment
             connection.close();
         }
     }
+
+    /**
+     * Reads the comment at the current row of a result set over [VW_Comment].
+     */
+    private static Comment readComment(ResultSet _resultSet) throws SQLException
+    {
+        int commentId = _resultSet.getInt("commentId");
+        int issueId = _resultSet.getInt("issueId");
+        String issueTitle = _resultSet.getString("issueTitle");
+        String issueDescription = _resultSet.getString("issueDescription");
+        int userId = _resultSet.getInt("userId");
+        String userFullName = _resultSet.getString("userFullName");
+        String commentText = _resultSet.getString("commentText");
+        Date commentDate = _resultSet.getTimestamp("commentDate");
+
+        return new Comment(commentId, issueId, issueTitle, issueDescription, userId, userFullName, commentText, commentDate);
+    }
 }
\ No newline at end of file
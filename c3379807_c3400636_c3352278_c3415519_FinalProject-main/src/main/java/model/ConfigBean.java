@@ -1,24 +1,94 @@
 package model;
 
 import javax.sql.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.sql.*;
-import javax.naming.*;
+import java.util.Properties;
 
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Owns the application's connection pool.
+ *
+ * The pool is configured from the itportal.datasource.* keys in application.properties.
+ * Any key can be overridden with a JVM system property of the same name; the other model
+ * classes read their itportal.* settings the same way through getSetting.
+ */
 public class ConfigBean {
 
+    private static final String PROPERTIES_FILE = "application.properties";
+    private static final String PREFIX = "itportal.datasource.";
+
+    private static final Properties properties = loadProperties();
+
     private static final DataSource dataSource = makeDataSource();
 
     private static DataSource makeDataSource() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("ITPortalPool");
+        config.setDriverClassName(property("driver-class-name", "com.microsoft.sqlserver.jdbc.SQLServerDriver"));
+        config.setJdbcUrl(property("url", "jdbc:sqlserver://localhost:1433;databaseName=SENG2050_DB;encrypt=false"));
+        config.setUsername(property("username", "db_Admin"));
+        config.setPassword(property("password", "password"));
+
+        // Pool sizing and lifecycle
+        config.setMinimumIdle(Integer.parseInt(property("pool.minimum-idle", "5")));
+        config.setMaximumPoolSize(Integer.parseInt(property("pool.maximum-size", "10")));
+        config.setConnectionTimeout(Long.parseLong(property("pool.connection-timeout-ms", "5000")));
+        config.setIdleTimeout(Long.parseLong(property("pool.idle-timeout-ms", "300000")));
+        config.setMaxLifetime(Long.parseLong(property("pool.max-lifetime-ms", "1800000")));
+        config.setValidationTimeout(Long.parseLong(property("pool.validation-timeout-ms", "2000")));
+        config.setLeakDetectionThreshold(Long.parseLong(property("pool.leak-detection-threshold-ms", "0")));
+        // Start without a database connection rather than failing class initialisation
+        config.setInitializationFailTimeout(-1);
+
+        // Per-connection prepared statement cache kept by the SQL Server driver,
+        // so repeated prepareStatement calls with the same SQL reuse the server-side handle.
+        int statementCacheSize = Integer.parseInt(property("statement-cache-size", "100"));
+        config.addDataSourceProperty("disableStatementPooling", String.valueOf(statementCacheSize <= 0));
+        config.addDataSourceProperty("statementPoolingCacheSize", String.valueOf(Math.max(statementCacheSize, 0)));
+
+        HikariDataSource pool = new HikariDataSource(config);
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "ITPortalPool-shutdown"));
+        return pool;
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
 
-        try {
-            InitialContext ctx = new InitialContext();
-            return (DataSource) ctx.lookup("java:/comp/env/jdbc/MyConnectionPool");
-        } catch(NamingException ex) {
+        try (InputStream input = ConfigBean.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException ex) {
             throw new RuntimeException(ex);
         }
+        return properties;
     }
-    
+
+    private static String property(String key, String defaultValue) {
+        return getSetting(PREFIX + key, defaultValue);
+    }
+
+    /**
+     * Returns a setting from application.properties, or from the system property of the same name if set.
+     */
+    static String getSetting(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Returns a connection for a model call. Inside a UnitOfWork this is the connection
+     * bound to the current thread; otherwise a connection is checked out from the pool.
+     */
     public static Connection getConnection() throws SQLException {
+        Connection shared = UnitOfWork.currentConnection();
+        return shared != null ? shared : dataSource.getConnection();
+    }
+
+    static Connection getPooledConnection() throws SQLException {
         return dataSource.getConnection();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,157 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Caches the credentials used to authenticate logins, keyed by username.
+ *
+ * Known usernames are kept for itportal.credential-cache.ttl-seconds. Unknown usernames are
+ * remembered separately for a much shorter itportal.credential-cache.negative-ttl-seconds, so
+ * repeated attempts against accounts that do not exist do not reach the database either.
+ * User.insertUser and User.updateUser invalidate the affected entries, and again once their
+ * transaction has committed.
+ *
+ * Usernames are matched case-insensitively, as by the database collation, so keys are lower-cased.
+ * A miss is loaded inside the cache's own atomic computation: concurrent misses for the same user share
+ * one query, and an invalidation that arrives while the row is being read waits for the load and then
+ * removes its result, so credentials read before a password change cannot be cached after it.
+ */
+public final class CredentialCache
+{
+    private static final Cache<String, Credentials> known = Caffeine.newBuilder()
+            .maximumSize(Long.parseLong(ConfigBean.getSetting("itportal.credential-cache.maximum-size", "10000")))
+            .expireAfterWrite(Duration.ofSeconds(Long.parseLong(ConfigBean.getSetting("itportal.credential-cache.ttl-seconds", "600"))))
+            .recordStats()
+            .build();
+
+    private static final Cache<String, Boolean> unknown = Caffeine.newBuilder()
+            .maximumSize(Long.parseLong(ConfigBean.getSetting("itportal.credential-cache.negative-maximum-size", "10000")))
+            .expireAfterWrite(Duration.ofSeconds(Long.parseLong(ConfigBean.getSetting("itportal.credential-cache.negative-ttl-seconds", "30"))))
+            .recordStats()
+            .build();
+
+    private CredentialCache()
+    {
+    }
+
+    /**
+     * Retrieves the credentials for a username, from the cache if present or otherwise from the database.
+     *
+     * @param _username The username to look up
+     * @return The credentials of the user, or null if there is no user with that username.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Credentials getCredentials(String _username) throws SQLException
+    {
+        var key = key(_username);
+
+        if (unknown.getIfPresent(key) != null)
+        {
+            return null;
+        }
+
+        try
+        {
+            // A null result is not cached as known; the username is remembered as unknown instead
+            return known.get(key, username ->
+            {
+                try
+                {
+                    var credentials = User.getCredentialsByUsername(_username);
+
+                    if (credentials == null)
+                    {
+                        unknown.put(username, Boolean.TRUE);
+                    }
+
+                    return credentials;
+                }
+                catch (SQLException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            if (e.getCause() instanceof SQLException sqlException)
+            {
+                throw sqlException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes a username from the cache, both as a known and as an unknown user.
+     *
+     * @param _username The username that has changed
+     */
+    public static void invalidate(String _username)
+    {
+        var key = key(_username);
+
+        // The known entry is removed first: this waits for a load in progress, which may mark the username unknown
+        Runnable invalidation = () ->
+        {
+            known.invalidate(key);
+            unknown.invalidate(key);
+        };
+
+        invalidation.run();
+
+        if (UnitOfWork.isActive())
+        {
+            UnitOfWork.afterCommit(invalidation);
+        }
+    }
+
+    /**
+     * Removes the cached credentials of a user, whatever their username was.
+     *
+     * @param _userId The ID of the user that has changed
+     */
+    public static void invalidateUser(int _userId)
+    {
+        Runnable invalidation = () -> known.asMap().values().removeIf(credentials -> credentials.userId() == _userId);
+
+        invalidation.run();
+
+        if (UnitOfWork.isActive())
+        {
+            UnitOfWork.afterCommit(invalidation);
+        }
+    }
+
+    private static String key(String _username)
+    {
+        return _username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the statistics of the cache of known usernames.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public static CacheStatistics getStatistics()
+    {
+        var stats = known.stats();
+        return new CacheStatistics(known.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+
+    /**
+     * Returns the statistics of the cache of unknown usernames.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public static CacheStatistics getNegativeStatistics()
+    {
+        var stats = unknown.stats();
+        return new CacheStatistics(unknown.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+}
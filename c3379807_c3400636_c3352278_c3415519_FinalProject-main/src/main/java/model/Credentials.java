@@ -0,0 +1,15 @@
+package model;
+
+/**
+ * Represents the subset of a user that is needed to authenticate them.
+ */
+public record Credentials
+(
+    int userId,
+    String username,
+    String password,
+    int roleId,
+    String role
+)
+{
+}
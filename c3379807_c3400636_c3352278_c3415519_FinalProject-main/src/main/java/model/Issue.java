@@ -1,9 +1,17 @@
 package model;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Represents an issue in the system.
@@ -79,6 +87,37 @@ public record Issue
         }
     }
 
+    /**
+     * Streams the issues from the database that match a filter, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @param _filter The criteria that the issues must match
+     * @return A stream of Issue objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<Issue> streamAllIssues(IssueFilter _filter) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    "SELECT *\nFROM [VW_Issue]\n" + _filter.whereClause(),
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            _filter.bind(query, 1);
+
+            return ResultSetStreams.stream(connection, query, Issue::readIssue);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
     /**
      * Retrieves all the issues from the database that belong to the specified category.
      *
@@ -298,13 +337,138 @@ public record Issue
         }
     }
 
+    /**
+     * Counts the issues in each category with a single GROUP BY query.
+     *
+     * @return A map from category name to the number of issues in that category.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<String, Long> getIssueCountsByCategory() throws SQLException
+    {
+        return getIssueCounts(
+                """
+                SELECT category AS label, COUNT(*) AS issueCount
+                FROM [VW_Issue]
+                GROUP BY categoryId, category;
+                """
+        );
+    }
+
+    /**
+     * Counts the issues in each state with a single GROUP BY query.
+     *
+     * @return A map from state name to the number of issues in that state.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<String, Long> getIssueCountsByState() throws SQLException
+    {
+        return getIssueCounts(
+                """
+                SELECT state AS label, COUNT(*) AS issueCount
+                FROM [VW_Issue]
+                GROUP BY stateId, state;
+                """
+        );
+    }
+
+    /**
+     * Counts the issues assigned to each staff member with a single GROUP BY query.
+     *
+     * @return A map from staff member full name to the number of issues assigned to them.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<String, Long> getIssueCountsByAssignee() throws SQLException
+    {
+        return getIssueCounts(
+                """
+                SELECT assignedToFullName AS label, COUNT(*) AS issueCount
+                FROM [VW_Issue]
+                WHERE assignedToId IS NOT NULL
+                GROUP BY assignedToId, assignedToFullName;
+                """
+        );
+    }
+
+    private static Map<String, Long> getIssueCounts(String _query) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var resultSet = connection.prepareStatement(_query).executeQuery();
+
+            var counts = new LinkedHashMap<String, Long>();
+
+            while (resultSet.next())
+            {
+                counts.merge(resultSet.getString("label"), resultSet.getLong("issueCount"), Long::sum);
+            }
+
+            return counts;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Retrieves the open issues that were reported the longest time ago.
+     * Issues that are Resolved or Completed are not open.
+     *
+     * @param _count The maximum number of issues to retrieve
+     * @return A list of OpenIssue objects, oldest first.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<OpenIssue> getLongestUnresolvedIssues(int _count) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT TOP (?) issueId, title, categoryId, assignedToId, dateReported
+                    FROM [VW_Issue]
+                    WHERE stateId NOT IN (?, ?)
+                    ORDER BY dateReported ASC, issueId ASC;
+                    """
+            );
+            query.setInt(1, _count);
+            query.setInt(2, State.RESOLVED);
+            query.setInt(3, State.COMPLETED);
+
+            var resultSet = query.executeQuery();
+
+            var issues = new LinkedList<OpenIssue>();
+
+            while (resultSet.next())
+            {
+                int issueId = resultSet.getInt("issueId");
+                String title = resultSet.getString("title");
+                int categoryId = resultSet.getInt("categoryId");
+                int assignedToId = resultSet.getInt("assignedToId");
+                Date dateReported = resultSet.getTimestamp("dateReported");
+
+                issues.add(new OpenIssue(issueId, title, categoryId, assignedToId, dateReported));
+            }
+
+            return issues;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
     /**
      * Inserts an issue in the database.
      *
      * @param _issue The issue to be inserted.
+     * @return The ID generated for the inserted issue.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertIssue(Issue _issue) throws SQLException
+    public static int insertIssue(Issue _issue) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -313,18 +477,26 @@ public record Issue
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Issue] (title, description, resolution_details, category_id, state_id, date_reported, date_resolved, reported_by_id, assigned_to_id) VALUES (?,?,?,?,?,?,?,?,?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _issue.title());
             query.setString(2, _issue.description());
             query.setString(3, _issue.resolutionDetails());
             query.setInt(4, _issue.categoryId());
             query.setInt(5, _issue.stateId());
-            query.setDate(6, (java.sql.Date) _issue.dateReported());
-            query.setDate(7, (java.sql.Date) _issue.dateResolved());
+            query.setTimestamp(6, _issue.dateReported() == null ? null : new Timestamp(_issue.dateReported().getTime()));
+            query.setTimestamp(7, _issue.dateResolved() == null ? null : new Timestamp(_issue.dateResolved().getTime()));
             query.setInt(8, _issue.reportedById());
             query.setInt(9, _issue.assignedToId());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int issueId = keys.next() ? keys.getInt(1) : 0;
+
+            IssueCache.invalidate(issueId);
+            IssueEvents.issueSaved(_issue.withIssueId(issueId));
+            return issueId;
         }
         finally
         {
@@ -355,16 +527,479 @@ public record Issue
             query.setString(3, _issue.resolutionDetails());
             query.setInt(4, _issue.categoryId());
             query.setInt(5, _issue.stateId());
-            query.setDate(6, (java.sql.Date) _issue.dateReported());
-            query.setDate(7, (java.sql.Date) _issue.dateResolved());
+            query.setTimestamp(6, _issue.dateReported() == null ? null : new Timestamp(_issue.dateReported().getTime()));
+            query.setTimestamp(7, _issue.dateResolved() == null ? null : new Timestamp(_issue.dateResolved().getTime()));
             query.setInt(8, _issue.reportedById());
             query.setInt(9, _issue.assignedToId());
-            query.setInt(9, _issue.issueId());
+            query.setInt(10, _issue.issueId());
             query.executeUpdate();
+
+            IssueCache.invalidate(_issue.issueId());
+            IssueEvents.issueSaved(_issue);
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Assigns an issue to a staff member, without reading or rewriting the rest of the issue. The update
+     * only applies if the issue is still assigned to the expected staff member, so a concurrent
+     * reassignment made since the caller read the issue is detected.
+     *
+     * @param _issueId The ID of the issue to be assigned.
+     * @param _expectedStaffId The ID of the staff member the issue is expected to be assigned to, or 0 if it is expected to be unassigned.
+     * @param _staffId The ID of the staff member the issue is assigned to.
+     * @return The number of issues updated, 0 if the issue does not exist or is no longer assigned to the expected staff member.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static int assignIssue(int _issueId, int _expectedStaffId, int _staffId) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    UPDATE [Issue] SET assigned_to_id = ? WHERE issue_id = ? AND ISNULL(assigned_to_id, 0) = ?;
+                    """
+            );
+            query.setInt(1, _staffId);
+            query.setInt(2, _issueId);
+            query.setInt(3, _expectedStaffId);
+            int updated = query.executeUpdate();
+
+            IssueCache.invalidate(_issueId);
+
+            if (updated > 0)
+            {
+                IssueEvents.issueAssigned(_issueId, _staffId);
+            }
+
+            return updated;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Moves an issue from one state to another. The update only applies if the issue is still in
+     * the expected state, so a concurrent change made since the caller read the issue is detected.
+     * Moving an open issue to Resolved or Completed records the date it was resolved, and moving an
+     * issue to an open state clears it; a move between Resolved and Completed keeps the date.
+     * Callers check the move against {@link State#canTransition(int, int)}.
+     *
+     * @param _issueId The ID of the issue to be updated.
+     * @param _fromStateId The state that the issue is expected to be in.
+     * @param _toStateId The state to move the issue to.
+     * @return The number of issues updated, 0 if the issue does not exist or is no longer in the expected state.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static int transitionIssueState(int _issueId, int _fromStateId, int _toStateId) throws SQLException
+    {
+        boolean resolving = State.isOpen(_fromStateId) && !State.isOpen(_toStateId);
+        var dateResolved = new Timestamp(System.currentTimeMillis());
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    UPDATE [Issue] SET state_id = ?%s
+                    OUTPUT inserted.resolution_details
+                    WHERE issue_id = ? AND state_id = ?;
+                    """.formatted(dateResolvedClause(resolving, _toStateId))
+            );
+            int index = 1;
+            query.setInt(index++, _toStateId);
+            if (resolving)
+            {
+                query.setTimestamp(index++, dateResolved);
+            }
+            query.setInt(index++, _issueId);
+            query.setInt(index, _fromStateId);
+
+            var resultSet = query.executeQuery();
+            int updated = 0;
+            String resolutionDetails = null;
+
+            while (resultSet.next())
+            {
+                updated++;
+                resolutionDetails = resultSet.getString("resolution_details");
+            }
+
+            IssueCache.invalidate(_issueId);
+
+            if (updated > 0 && resolving)
+            {
+                IssueEvents.issueResolved(_issueId, _toStateId, resolutionDetails, dateResolved);
+            }
+            else if (updated > 0)
+            {
+                IssueEvents.issueStateChanged(_issueId, _toStateId);
+            }
+
+            return updated;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Records the resolution of an issue and moves it to the given state. The update only applies
+     * if the issue is open and may move to that state, see {@link State#canTransition(int, int)}, so
+     * resolving twice or resolving an issue that is not ready to be resolved is detected.
+     *
+     * @param _issueId The ID of the issue to be resolved.
+     * @param _resolvedStateId The state that marks the issue as resolved, e.g. State.RESOLVED or State.COMPLETED.
+     * @param _resolutionDetails The details of the resolution.
+     * @param _dateResolved The date the issue was resolved.
+     * @return The number of issues updated, 0 if the issue does not exist, is not open or cannot move to the resolved state.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static int resolveIssue(int _issueId, int _resolvedStateId, String _resolutionDetails, Date _dateResolved) throws SQLException
+    {
+        var fromStateIds = new ArrayList<Integer>();
+
+        if (!State.isOpen(_resolvedStateId))
+        {
+            for (int stateId : State.getStatesBefore(_resolvedStateId))
+            {
+                if (State.isOpen(stateId))
+                {
+                    fromStateIds.add(stateId);
+                }
+            }
+        }
+
+        if (fromStateIds.isEmpty())
+        {
+            return 0;
+        }
+
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    UPDATE [Issue] SET state_id = ?, resolution_details = ?, date_resolved = ? WHERE issue_id = ? AND state_id IN (%s);
+                    """.formatted(BatchQueries.placeholders(fromStateIds.size()))
+            );
+            query.setInt(1, _resolvedStateId);
+            query.setString(2, _resolutionDetails);
+            query.setTimestamp(3, new Timestamp(_dateResolved.getTime()));
+            query.setInt(4, _issueId);
+            for (int i = 0; i < fromStateIds.size(); i++)
+            {
+                query.setInt(i + 5, fromStateIds.get(i));
+            }
+            int updated = query.executeUpdate();
+
+            IssueCache.invalidate(_issueId);
+
+            if (updated > 0)
+            {
+                IssueEvents.issueResolved(_issueId, _resolvedStateId, _resolutionDetails, _dateResolved);
+            }
+
+            return updated;
         }
         finally
         {
             connection.close();
         }
     }
+
+    /**
+     * Assigns many issues to a staff member in one transaction, with one set-based UPDATE per 512 issues.
+     *
+     * @param _issueIds The IDs of the issues to be assigned; duplicates are ignored.
+     * @param _staffId The ID of the staff member the issues are assigned to.
+     * @return The outcome for each issue, in the order the IDs were given.
+     * @throws SQLException if there is an error in executing the SQL query; no issue is assigned in that case.
+     */
+    public static List<BulkUpdateResult> assignIssues(Collection<Integer> _issueIds, int _staffId) throws SQLException
+    {
+        var ids = new ArrayList<>(new LinkedHashSet<>(_issueIds));
+        var assigned = new HashSet<Integer>();
+
+        try (var unitOfWork = UnitOfWork.begin())
+        {
+            var connection = ConfigBean.getConnection();
+
+            for (int start = 0; start < ids.size(); start += BatchQueries.MAX_CHUNK_SIZE)
+            {
+                var chunk = ids.subList(start, Math.min(start + BatchQueries.MAX_CHUNK_SIZE, ids.size()));
+                int paddedSize = BatchQueries.paddedSize(chunk.size());
+
+                var query = connection.prepareStatement(
+                        """
+                        UPDATE [Issue] SET assigned_to_id = ?
+                        OUTPUT inserted.issue_id
+                        WHERE issue_id IN (%s);
+                        """.formatted(BatchQueries.placeholders(paddedSize))
+                );
+                query.setInt(1, _staffId);
+
+                for (int i = 0; i < paddedSize; i++)
+                {
+                    query.setInt(i + 2, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+
+                var resultSet = query.executeQuery();
+
+                while (resultSet.next())
+                {
+                    assigned.add(resultSet.getInt("issue_id"));
+                }
+
+                query.close();
+            }
+
+            for (int issueId : assigned)
+            {
+                IssueCache.invalidate(issueId);
+                IssueEvents.issueAssigned(issueId, _staffId);
+            }
+
+            unitOfWork.commit();
+        }
+
+        var results = new ArrayList<BulkUpdateResult>(ids.size());
+        for (int issueId : ids)
+        {
+            results.add(assigned.contains(issueId) ? new BulkUpdateResult(issueId, true, "Assigned") : new BulkUpdateResult(issueId, false, "Issue not found"));
+        }
+
+        return results;
+    }
+
+    /**
+     * Moves many issues to a state in one transaction, with set-based UPDATEs of up to 512 issues. Only
+     * issues in a state that may move to the target state are updated, see {@link State#canTransition(int, int)};
+     * the current state of the others is then read to report why they were not moved. Open issues moved
+     * to Resolved or Completed are stamped with the date they were resolved, as {@link #resolveIssue}
+     * does, and issues moved to an open state have it cleared; a move between Resolved and Completed
+     * keeps the date.
+     *
+     * @param _issueIds The IDs of the issues to be updated; duplicates are ignored.
+     * @param _toStateId The state to move the issues to.
+     * @return The outcome for each issue, in the order the IDs were given.
+     * @throws IllegalArgumentException if there is no state with the given ID.
+     * @throws SQLException if there is an error in executing the SQL query; no issue is updated in that case.
+     */
+    public static List<BulkUpdateResult> transitionIssueStates(Collection<Integer> _issueIds, int _toStateId) throws SQLException
+    {
+        String toState = ReferenceData.getStateName(_toStateId);
+
+        if (toState == null)
+        {
+            throw new IllegalArgumentException("There is no state " + _toStateId + ".");
+        }
+
+        var ids = new ArrayList<>(new LinkedHashSet<>(_issueIds));
+        var dateResolved = new Timestamp(System.currentTimeMillis());
+        var moved = new HashSet<Integer>();
+        var resolved = new HashSet<Integer>();
+        var resolutionDetails = new HashMap<Integer, String>();
+        var unmovedStates = new HashMap<Integer, Integer>();
+
+        // Issues moving from an open state and from a closed state differ in what happens to date_resolved
+        var fromOpenStateIds = new ArrayList<Integer>();
+        var fromClosedStateIds = new ArrayList<Integer>();
+        for (int fromStateId : State.getStatesBefore(_toStateId))
+        {
+            (State.isOpen(fromStateId) ? fromOpenStateIds : fromClosedStateIds).add(fromStateId);
+        }
+
+        try (var unitOfWork = UnitOfWork.begin())
+        {
+            var connection = ConfigBean.getConnection();
+
+            for (int start = 0; start < ids.size(); start += BatchQueries.MAX_CHUNK_SIZE)
+            {
+                var chunk = ids.subList(start, Math.min(start + BatchQueries.MAX_CHUNK_SIZE, ids.size()));
+                int paddedSize = BatchQueries.paddedSize(chunk.size());
+
+                for (var fromStateIds : List.of(fromOpenStateIds, fromClosedStateIds))
+                {
+                    if (fromStateIds.isEmpty())
+                    {
+                        continue;
+                    }
+
+                    boolean resolving = fromStateIds == fromOpenStateIds && !State.isOpen(_toStateId);
+
+                    var query = connection.prepareStatement(
+                            """
+                            UPDATE [Issue] SET state_id = ?%s
+                            OUTPUT inserted.issue_id, inserted.resolution_details
+                            WHERE issue_id IN (%s) AND state_id IN (%s);
+                            """.formatted(dateResolvedClause(resolving, _toStateId), BatchQueries.placeholders(paddedSize), BatchQueries.placeholders(fromStateIds.size()))
+                    );
+                    int index = 1;
+                    query.setInt(index++, _toStateId);
+                    if (resolving)
+                    {
+                        query.setTimestamp(index++, dateResolved);
+                    }
+
+                    for (int i = 0; i < paddedSize; i++)
+                    {
+                        query.setInt(index++, chunk.get(Math.min(i, chunk.size() - 1)));
+                    }
+                    for (int fromStateId : fromStateIds)
+                    {
+                        query.setInt(index++, fromStateId);
+                    }
+
+                    var resultSet = query.executeQuery();
+
+                    while (resultSet.next())
+                    {
+                        int issueId = resultSet.getInt("issue_id");
+                        moved.add(issueId);
+                        resolutionDetails.put(issueId, resultSet.getString("resolution_details"));
+
+                        if (resolving)
+                        {
+                            resolved.add(issueId);
+                        }
+                    }
+
+                    query.close();
+                }
+
+                if (moved.containsAll(chunk))
+                {
+                    continue;
+                }
+
+                // The issues that were not moved are read back, in the same transaction, to tell why
+                var states = connection.prepareStatement(
+                        """
+                        SELECT issue_id, state_id
+                        FROM [Issue]
+                        WHERE issue_id IN (%s);
+                        """.formatted(BatchQueries.placeholders(paddedSize))
+                );
+
+                for (int i = 0; i < paddedSize; i++)
+                {
+                    states.setInt(i + 1, chunk.get(Math.min(i, chunk.size() - 1)));
+                }
+
+                var resultSet = states.executeQuery();
+
+                while (resultSet.next())
+                {
+                    int issueId = resultSet.getInt("issue_id");
+
+                    if (!moved.contains(issueId))
+                    {
+                        unmovedStates.put(issueId, resultSet.getInt("state_id"));
+                    }
+                }
+
+                states.close();
+            }
+
+            for (int issueId : moved)
+            {
+                IssueCache.invalidate(issueId);
+
+                if (resolved.contains(issueId))
+                {
+                    IssueEvents.issueResolved(issueId, _toStateId, resolutionDetails.get(issueId), dateResolved);
+                }
+                else
+                {
+                    IssueEvents.issueStateChanged(issueId, _toStateId);
+                }
+            }
+
+            unitOfWork.commit();
+        }
+
+        var results = new ArrayList<BulkUpdateResult>(ids.size());
+
+        for (int issueId : ids)
+        {
+            if (moved.contains(issueId))
+            {
+                results.add(new BulkUpdateResult(issueId, true, "Moved to " + toState));
+            }
+            else if (!unmovedStates.containsKey(issueId))
+            {
+                results.add(new BulkUpdateResult(issueId, false, "Issue not found"));
+            }
+            else if (unmovedStates.get(issueId) == _toStateId)
+            {
+                results.add(new BulkUpdateResult(issueId, false, "Already " + toState));
+            }
+            else
+            {
+                results.add(new BulkUpdateResult(issueId, false, "Cannot move from " + ReferenceData.getStateName(unmovedStates.get(issueId)) + " to " + toState));
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Returns the part of a state UPDATE's SET clause that maintains date_resolved: a parameter for the
+     * resolution date when an open issue is resolved, NULL when an issue moves to an open state, and
+     * nothing when an issue moves between closed states.
+     */
+    private static String dateResolvedClause(boolean _resolving, int _toStateId)
+    {
+        if (_resolving)
+        {
+            return ", date_resolved = ?";
+        }
+
+        return State.isOpen(_toStateId) ? ", date_resolved = NULL" : "";
+    }
+
+    /**
+     * Returns a copy of this issue with a different ID, e.g. the one generated when it was inserted.
+     *
+     * @param _issueId The ID of the copy
+     * @return A copy of this issue with the given ID.
+     */
+    public Issue withIssueId(int _issueId)
+    {
+        return new Issue(_issueId, title, description, resolutionDetails, categoryId, category, stateId, state, dateReported, dateResolved, reportedById, reportedByFullName, assignedToId, assignedToFullName);
+    }
+
+    /**
+     * Reads the issue at the current row of a result set over [VW_Issue].
+     * The report date is read as a timestamp so that it can be used as a pagination key.
+     */
+    private static Issue readIssue(ResultSet _resultSet) throws SQLException
+    {
+        int issueId = _resultSet.getInt("issueId");
+        String title = _resultSet.getString("title");
+        String description = _resultSet.getString("description");
+        String resolutionDetails = _resultSet.getString("resolutionDetails");
+        int categoryId = _resultSet.getInt("categoryId");
+        String category = _resultSet.getString("category");
+        int stateId = _resultSet.getInt("stateId");
+        String state = _resultSet.getString("state");
+        Date dateReported = _resultSet.getTimestamp("dateReported");
+        Date dateResolved = _resultSet.getTimestamp("dateResolved");
+        int reportedById = _resultSet.getInt("reportedById");
+        String reportedByFullName = _resultSet.getString("reportedByFullName");
+        int assignedToId = _resultSet.getInt("assignedToId");
+        String assignedToFullName = _resultSet.getString("assignedToFullName");
+
+        return new Issue(issueId, title, description, resolutionDetails, categoryId, category, stateId, state, dateReported, dateResolved, reportedById, reportedByFullName, assignedToId, assignedToFullName);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package model;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds the counts reduced from a range of rows of an {@link IssueColumnsSnapshot}: issues per category,
+ * per state and per assigned staff member, open issues per staff member, and the time taken by resolved
+ * issues. Partial aggregates of disjoint row ranges are combined by adding their counts.
+ */
+public final class IssueAggregate
+{
+    private final long[] perCategory;
+    private final long[] perState;
+    private final long[] perStaff;
+    private final long[] openPerStaff;
+    private long resolvedCount;
+    private long resolvedMillis;
+
+    IssueAggregate(int _categories, int _states, int _staff)
+    {
+        perCategory = new long[_categories];
+        perState = new long[_states];
+        perStaff = new long[_staff];
+        openPerStaff = new long[_staff];
+    }
+
+    /**
+     * Counts one issue.
+     */
+    void add(int _categoryId, int _stateId, int _assignedToId, long _reportedMillis, long _resolvedMillis, long _noDate)
+    {
+        perCategory[_categoryId]++;
+        perState[_stateId]++;
+
+        boolean open = _stateId != State.RESOLVED && _stateId != State.COMPLETED;
+
+        if (_assignedToId != 0)
+        {
+            perStaff[_assignedToId]++;
+
+            if (open)
+            {
+                openPerStaff[_assignedToId]++;
+            }
+        }
+
+        if (_stateId == State.RESOLVED && _resolvedMillis != _noDate && _reportedMillis != _noDate)
+        {
+            resolvedCount++;
+            resolvedMillis += _resolvedMillis - _reportedMillis;
+        }
+    }
+
+    /**
+     * Adds the counts of another aggregate, over the same ID ranges, to this one.
+     */
+    IssueAggregate combine(IssueAggregate _other)
+    {
+        add(perCategory, _other.perCategory);
+        add(perState, _other.perState);
+        add(perStaff, _other.perStaff);
+        add(openPerStaff, _other.openPerStaff);
+        resolvedCount += _other.resolvedCount;
+        resolvedMillis += _other.resolvedMillis;
+        return this;
+    }
+
+    /**
+     * Returns the number of issues in each category.
+     *
+     * @return A map from category ID to the number of issues in that category.
+     */
+    public Map<Integer, Long> getIssuesPerCategory()
+    {
+        return toMap(perCategory);
+    }
+
+    /**
+     * Returns the number of issues in each state.
+     *
+     * @return A map from state ID to the number of issues in that state.
+     */
+    public Map<Integer, Long> getIssuesPerState()
+    {
+        return toMap(perState);
+    }
+
+    /**
+     * Returns the number of issues assigned to each staff member.
+     *
+     * @return A map from staff member ID to the number of issues assigned to them.
+     */
+    public Map<Integer, Long> getIssuesPerStaff()
+    {
+        return toMap(perStaff);
+    }
+
+    /**
+     * Returns the number of open issues assigned to each staff member.
+     *
+     * @return A map from staff member ID to the number of open issues assigned to them.
+     */
+    public Map<Integer, Long> getOpenIssuesPerStaff()
+    {
+        return toMap(openPerStaff);
+    }
+
+    /**
+     * Returns the average time taken to resolve the resolved issues.
+     *
+     * @return The average resolution time in milliseconds, or 0 if no issue is resolved.
+     */
+    public double getAverageResolutionMillis()
+    {
+        return resolvedCount == 0 ? 0 : (double) resolvedMillis / resolvedCount;
+    }
+
+    private static void add(long[] _into, long[] _from)
+    {
+        for (int i = 0; i < _into.length; i++)
+        {
+            _into[i] += _from[i];
+        }
+    }
+
+    private static Map<Integer, Long> toMap(long[] _counts)
+    {
+        var map = new HashMap<Integer, Long>();
+
+        for (int key = 1; key < _counts.length; key++)
+        {
+            if (_counts[key] > 0)
+            {
+                map.put(key, _counts[key]);
+            }
+        }
+
+        return map;
+    }
+}
@@ -0,0 +1,104 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.Duration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded, concurrent read-through cache for issue detail lookups.
+ *
+ * Entries are evicted by size (itportal.issue-cache.maximum-size) and expire after
+ * itportal.issue-cache.ttl-seconds. The Issue update methods invalidate the affected entry, and
+ * again after their transaction commits, so detail pages do not show stale data after a change made through this application.
+ */
+public final class IssueCache
+{
+    private static final Cache<Integer, Issue> cache = Caffeine.newBuilder()
+            .maximumSize(Long.parseLong(ConfigBean.getSetting("itportal.issue-cache.maximum-size", "10000")))
+            .expireAfterWrite(Duration.ofSeconds(Long.parseLong(ConfigBean.getSetting("itportal.issue-cache.ttl-seconds", "300"))))
+            .recordStats()
+            .build();
+
+    private IssueCache()
+    {
+    }
+
+    /**
+     * Retrieves a single issue, from the cache if present or otherwise from the database.
+     * Concurrent lookups of the same missing issue share a single database query. Inside a unit of work
+     * the issue is read on the transaction's connection and not cached, since it may include uncommitted
+     * changes that are rolled back.
+     *
+     * @param _issueId The ID of the issue to be retrieved
+     * @return A single Issue object, or null if the issue does not exist.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Issue getIssue(int _issueId) throws SQLException
+    {
+        if (UnitOfWork.isActive())
+        {
+            return Issue.getIssue(_issueId);
+        }
+
+        try
+        {
+            return cache.get(_issueId, issueId ->
+            {
+                try
+                {
+                    return Issue.getIssue(issueId);
+                }
+                catch (SQLException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            });
+        }
+        catch (RuntimeException e)
+        {
+            if (e.getCause() instanceof SQLException sqlException)
+            {
+                throw sqlException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Removes an issue from the cache, so the next lookup reads it from the database. Inside a unit of
+     * work the issue is removed again once the transaction has committed, since a concurrent lookup may
+     * have cached the row as it was before the commit in the meantime.
+     *
+     * @param _issueId The ID of the issue that has changed
+     */
+    public static void invalidate(int _issueId)
+    {
+        cache.invalidate(_issueId);
+
+        if (UnitOfWork.isActive())
+        {
+            UnitOfWork.afterCommit(() -> cache.invalidate(_issueId));
+        }
+    }
+
+    /**
+     * Removes every issue from the cache.
+     */
+    public static void invalidateAll()
+    {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Returns the hit, miss and eviction counts of the cache since startup.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public static CacheStatistics getStatistics()
+    {
+        var stats = cache.stats();
+        return new CacheStatistics(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.evictionCount(), stats.hitRate());
+    }
+}
@@ -0,0 +1,273 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the fields of every issue that analytics read, stored column-wise in primitive arrays.
+ *
+ * Each issue is one row across the columns, found through its ID. Names are not stored per issue:
+ * categories and states are resolved through {@link ReferenceData}, and staff and reporter names are
+ * kept once per user in a dictionary. The columns are seeded by {@link #reload()} and then updated in
+ * place from the issue change events. Readers work on an {@link IssueColumnsSnapshot}, an immutable
+ * copy of the columns. After a change the copy is taken again at most once per
+ * itportal.analytics.snapshot-max-age-ms, so a burst of changes costs one copy rather than one per
+ * change; readers in between see the previous copy.
+ *
+ * {@link IssueStatistics} keeps its own per-issue record rather than reading these columns: it maintains
+ * its counters by removing an issue's previous contribution as each event arrives, which needs the old
+ * values (and the title, for the oldest open issues) under its own lock, whatever order the listeners
+ * run in. The columns answer the scans those counters cannot, such as facet counts for any filter.
+ */
+public final class IssueColumns implements IssueListener
+{
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final long SNAPSHOT_MAX_AGE_MILLIS = Long.parseLong(ConfigBean.getSetting("itportal.analytics.snapshot-max-age-ms", "1000"));
+
+    private static final IssueColumns instance = new IssueColumns();
+
+    static
+    {
+        IssueEvents.register(instance);
+    }
+
+    private int size;
+    private int[] issueIds = new int[INITIAL_CAPACITY];
+    private int[] categoryIds = new int[INITIAL_CAPACITY];
+    private int[] stateIds = new int[INITIAL_CAPACITY];
+    private int[] reportedByIds = new int[INITIAL_CAPACITY];
+    private int[] assignedToIds = new int[INITIAL_CAPACITY];
+    private long[] reportedMillis = new long[INITIAL_CAPACITY];
+    private long[] resolvedMillis = new long[INITIAL_CAPACITY];
+
+    /**
+     * The row of each issue in the columns.
+     */
+    private final Map<Integer, Integer> rows = new HashMap<>();
+
+    /**
+     * Full names of the users that reported or were assigned issues, by user ID.
+     */
+    private final Map<Integer, String> userNames = new ConcurrentHashMap<>();
+
+    private boolean loaded;
+    private volatile IssueColumnsSnapshot cached;
+    private volatile boolean stale = true;
+    private volatile long cachedAtMillis;
+
+    private IssueColumns()
+    {
+    }
+
+    /**
+     * Seeds the columns from the database, replacing the current ones.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        synchronized (instance)
+        {
+            instance.size = 0;
+            instance.rows.clear();
+            instance.userNames.clear();
+
+            try (var summaries = IssueSummary.streamIssueSummaries(IssueFilter.none()))
+            {
+                summaries.forEach(summary ->
+                {
+                    instance.put(summary.issueId(), summary.categoryId(), summary.stateId(), summary.reportedById(), summary.assignedToId(), millis(summary.dateReported()), millis(summary.dateResolved()));
+                    instance.name(summary.reportedById(), summary.reportedByFullName());
+                    instance.name(summary.assignedToId(), summary.assignedToFullName());
+                });
+            }
+            catch (RuntimeException e)
+            {
+                if (e.getCause() instanceof SQLException sqlException)
+                {
+                    throw sqlException;
+                }
+                throw e;
+            }
+
+            instance.loaded = true;
+            instance.changed();
+            instance.cached = null;
+        }
+    }
+
+    /**
+     * Returns an immutable copy of the columns. The copy is only taken again after an issue has changed,
+     * and then no more often than the configured maximum age.
+     *
+     * @return A snapshot of the columns.
+     * @throws SQLException if the columns have not been seeded yet and seeding them fails.
+     */
+    public static IssueColumnsSnapshot getSnapshot() throws SQLException
+    {
+        var current = instance.cached;
+
+        if (current != null && instance.isFresh())
+        {
+            return current;
+        }
+
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                reload();
+            }
+
+            if (instance.cached == null || !instance.isFresh())
+            {
+                instance.stale = false;
+                instance.cachedAtMillis = System.currentTimeMillis();
+
+                int count = instance.size;
+                instance.cached = new IssueColumnsSnapshot(
+                        count,
+                        Arrays.copyOf(instance.issueIds, count),
+                        Arrays.copyOf(instance.categoryIds, count),
+                        Arrays.copyOf(instance.stateIds, count),
+                        Arrays.copyOf(instance.reportedByIds, count),
+                        Arrays.copyOf(instance.assignedToIds, count),
+                        Arrays.copyOf(instance.reportedMillis, count),
+                        Arrays.copyOf(instance.resolvedMillis, count),
+                        Map.copyOf(instance.userNames)
+                );
+            }
+
+            return instance.cached;
+        }
+    }
+
+    @Override
+    public synchronized void issueSaved(Issue _issue)
+    {
+        if (!loaded)
+        {
+            return;
+        }
+
+        put(_issue.issueId(), _issue.categoryId(), _issue.stateId(), _issue.reportedById(), _issue.assignedToId(), millis(_issue.dateReported()), millis(_issue.dateResolved()));
+        name(_issue.reportedById(), _issue.reportedByFullName());
+        name(_issue.assignedToId(), _issue.assignedToFullName());
+        changed();
+    }
+
+    @Override
+    public synchronized void issueAssigned(int _issueId, int _staffId)
+    {
+        var row = rows.get(_issueId);
+
+        if (row != null)
+        {
+            assignedToIds[row] = _staffId;
+            changed();
+        }
+    }
+
+    @Override
+    public synchronized void issueStateChanged(int _issueId, int _stateId)
+    {
+        var row = rows.get(_issueId);
+
+        if (row != null)
+        {
+            stateIds[row] = _stateId;
+
+            // A reopened issue no longer has a resolution date
+            if (State.isOpen(_stateId))
+            {
+                resolvedMillis[row] = NO_DATE;
+            }
+
+            changed();
+        }
+    }
+
+    @Override
+    public synchronized void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        var row = rows.get(_issueId);
+
+        if (row != null)
+        {
+            stateIds[row] = _stateId;
+            resolvedMillis[row] = millis(_dateResolved);
+            changed();
+        }
+    }
+
+    /**
+     * Writes an issue to its row, appending a row for an issue not seen before.
+     */
+    private void put(int _issueId, int _categoryId, int _stateId, int _reportedById, int _assignedToId, long _reportedMillis, long _resolvedMillis)
+    {
+        var row = rows.get(_issueId);
+
+        if (row == null)
+        {
+            if (size == issueIds.length)
+            {
+                grow();
+            }
+
+            row = size++;
+            rows.put(_issueId, row);
+        }
+
+        issueIds[row] = _issueId;
+        categoryIds[row] = _categoryId;
+        stateIds[row] = _stateId;
+        reportedByIds[row] = _reportedById;
+        assignedToIds[row] = _assignedToId;
+        reportedMillis[row] = _reportedMillis;
+        resolvedMillis[row] = _resolvedMillis;
+    }
+
+    private void grow()
+    {
+        int capacity = issueIds.length * 2;
+        issueIds = Arrays.copyOf(issueIds, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+        stateIds = Arrays.copyOf(stateIds, capacity);
+        reportedByIds = Arrays.copyOf(reportedByIds, capacity);
+        assignedToIds = Arrays.copyOf(assignedToIds, capacity);
+        reportedMillis = Arrays.copyOf(reportedMillis, capacity);
+        resolvedMillis = Arrays.copyOf(resolvedMillis, capacity);
+    }
+
+    private void name(int _userId, String _fullName)
+    {
+        if (_userId != 0 && _fullName != null)
+        {
+            userNames.put(_userId, _fullName);
+        }
+    }
+
+    /**
+     * Whether the cached copy may still be read: nothing has changed since it was taken, or it is
+     * younger than the maximum age.
+     */
+    private boolean isFresh()
+    {
+        return !stale || System.currentTimeMillis() - cachedAtMillis < SNAPSHOT_MAX_AGE_MILLIS;
+    }
+
+    private void changed()
+    {
+        stale = true;
+    }
+
+    private static long millis(Date _date)
+    {
+        return _date == null ? NO_DATE : _date.getTime();
+    }
+}
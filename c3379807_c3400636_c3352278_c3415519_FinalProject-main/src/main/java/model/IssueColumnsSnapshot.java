@@ -0,0 +1,309 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * An immutable, column-wise copy of the issue fields that analytics read, taken by {@link IssueColumns}.
+ * Row i of every column belongs to the same issue. The queries are plain loops over the primitive
+ * columns, counting into arrays indexed by ID.
+ *
+ * {@link #aggregate()} reduces every count in one pass. Above itportal.analytics.parallel-threshold
+ * rows the pass is split into ranges that are counted on the common fork-join pool and combined;
+ * below it, forking costs more than it saves and the pass stays on the calling thread.
+ */
+public final class IssueColumnsSnapshot
+{
+    /**
+     * The date range facet values: issues reported within the last 7, 30, 90 and 365 days.
+     */
+    public static final int[] REPORTED_WITHIN_DAYS = { 7, 30, 90, 365 };
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final long DAY_MILLIS = 86400000L;
+    private static final int PARALLEL_THRESHOLD = Integer.parseInt(ConfigBean.getSetting("itportal.analytics.parallel-threshold", "50000"));
+
+    private final int size;
+    private final int[] issueIds;
+    private final int[] categoryIds;
+    private final int[] stateIds;
+    private final int[] reportedByIds;
+    private final int[] assignedToIds;
+    private final long[] reportedMillis;
+    private final long[] resolvedMillis;
+    private final Map<Integer, String> userNames;
+
+    IssueColumnsSnapshot(int _size, int[] _issueIds, int[] _categoryIds, int[] _stateIds, int[] _reportedByIds, int[] _assignedToIds, long[] _reportedMillis, long[] _resolvedMillis, Map<Integer, String> _userNames)
+    {
+        size = _size;
+        issueIds = _issueIds;
+        categoryIds = _categoryIds;
+        stateIds = _stateIds;
+        reportedByIds = _reportedByIds;
+        assignedToIds = _assignedToIds;
+        reportedMillis = _reportedMillis;
+        resolvedMillis = _resolvedMillis;
+        userNames = _userNames;
+    }
+
+    /**
+     * Returns the number of issues in the snapshot.
+     *
+     * @return The number of issues.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Counts the issues in each category.
+     *
+     * @return A map from category ID to the number of issues in that category.
+     */
+    public Map<Integer, Long> countByCategory()
+    {
+        return aggregate().getIssuesPerCategory();
+    }
+
+    /**
+     * Counts the issues in each state.
+     *
+     * @return A map from state ID to the number of issues in that state.
+     */
+    public Map<Integer, Long> countByState()
+    {
+        return aggregate().getIssuesPerState();
+    }
+
+    /**
+     * Counts the open issues assigned to each staff member. Issues that are Resolved or Completed are not open.
+     *
+     * @return A map from staff member ID to the number of open issues assigned to them.
+     */
+    public Map<Integer, Long> countOpenByAssignee()
+    {
+        return aggregate().getOpenIssuesPerStaff();
+    }
+
+    /**
+     * Counts the issues per category, state and staff member and their resolution times, in one pass.
+     *
+     * @return The aggregate of every issue in the snapshot.
+     */
+    public IssueAggregate aggregate()
+    {
+        return aggregate(PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Counts the issues per category, state and staff member, splitting the work once there are more
+     * rows than the threshold.
+     *
+     * @param _threshold The number of rows at or below which a range is counted on the calling thread
+     * @return The aggregate of every issue in the snapshot.
+     */
+    IssueAggregate aggregate(int _threshold)
+    {
+        var task = new AggregateTask(0, size, Math.max(_threshold, 1), max(categoryIds) + 1, max(stateIds) + 1, max(assignedToIds) + 1);
+        return size <= _threshold ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+    }
+
+    /**
+     * Measures, for each category, how many of the issues resolved in a period were resolved within a target time.
+     *
+     * @param _targetMillis The target time to resolve an issue, in milliseconds
+     * @param _fromMillis The start of the period, as epoch milliseconds
+     * @param _toMillis The end of the period, exclusive, as epoch milliseconds
+     * @return The compliance of each category with issues resolved in the period, by category ID.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public List<SlaCompliance> getSlaCompliance(long _targetMillis, long _fromMillis, long _toMillis) throws SQLException
+    {
+        int buckets = max(categoryIds) + 1;
+        var resolved = new int[buckets];
+        var withinTarget = new int[buckets];
+
+        for (int row = 0; row < size; row++)
+        {
+            long resolvedAt = resolvedMillis[row];
+
+            if (stateIds[row] == State.RESOLVED && resolvedAt != NO_DATE && reportedMillis[row] != NO_DATE && resolvedAt >= _fromMillis && resolvedAt < _toMillis)
+            {
+                int category = categoryIds[row];
+                resolved[category]++;
+
+                if (resolvedAt - reportedMillis[row] <= _targetMillis)
+                {
+                    withinTarget[category]++;
+                }
+            }
+        }
+
+        var compliance = new ArrayList<SlaCompliance>();
+        for (int category = 0; category < buckets; category++)
+        {
+            if (resolved[category] > 0)
+            {
+                var name = ReferenceData.getCategoryName(category);
+                compliance.add(new SlaCompliance(name != null ? name : "#" + category, resolved[category], withinTarget[category], (double) withinTarget[category] / resolved[category]));
+            }
+        }
+
+        return compliance;
+    }
+
+    /**
+     * Counts the facet values of the issues matching a filter, in one pass over the columns. Each facet
+     * is counted over the issues matching the criteria of every other facet, so a count is the number
+     * of issues the list would show if that value were selected instead.
+     *
+     * @param _filter The criteria selected in each facet
+     * @param _nowMillis The current time, which the date range facet is relative to
+     * @return The counts of every facet.
+     */
+    public IssueFacetCounts getFacetCounts(IssueFilter _filter, long _nowMillis)
+    {
+        long from = _filter.reportedFrom() == null ? NO_DATE : _filter.reportedFrom().getTime();
+        long to = _filter.reportedTo() == null ? Long.MAX_VALUE : _filter.reportedTo().getTime();
+
+        // Unboxed once, so the loop compares primitives; -1 matches every row
+        int categoryId = _filter.categoryId() == null ? -1 : _filter.categoryId();
+        int stateId = _filter.stateId() == null ? -1 : _filter.stateId();
+        int assignedToId = _filter.assignedToId() == null ? -1 : _filter.assignedToId();
+        int reportedById = _filter.reportedById() == null ? -1 : _filter.reportedById();
+
+        var categories = new HashMap<Integer, Integer>();
+        var states = new HashMap<Integer, Integer>();
+        var assignees = new HashMap<Integer, Integer>();
+        var reporters = new HashMap<Integer, Integer>();
+        var withinDays = new int[REPORTED_WITHIN_DAYS.length];
+
+        for (int row = 0; row < size; row++)
+        {
+            boolean category = categoryId < 0 || categoryIds[row] == categoryId;
+            boolean state = stateId < 0 || stateIds[row] == stateId;
+            boolean assignee = assignedToId < 0 || assignedToIds[row] == assignedToId;
+            boolean reporter = reportedById < 0 || reportedByIds[row] == reportedById;
+            boolean reported = reportedMillis[row] != NO_DATE && reportedMillis[row] >= from && reportedMillis[row] < to;
+
+            int misses = (category ? 0 : 1) + (state ? 0 : 1) + (assignee ? 0 : 1) + (reporter ? 0 : 1) + (reported ? 0 : 1);
+
+            // A row counts towards a facet only if every other facet matches
+            if (misses > 1)
+            {
+                continue;
+            }
+
+            if (misses == 0 || !category)
+            {
+                categories.merge(categoryIds[row], 1, Integer::sum);
+            }
+            if (misses == 0 || !state)
+            {
+                states.merge(stateIds[row], 1, Integer::sum);
+            }
+            if ((misses == 0 || !assignee) && assignedToIds[row] != 0)
+            {
+                assignees.merge(assignedToIds[row], 1, Integer::sum);
+            }
+            if (misses == 0 || !reporter)
+            {
+                reporters.merge(reportedByIds[row], 1, Integer::sum);
+            }
+            if ((misses == 0 || !reported) && reportedMillis[row] != NO_DATE)
+            {
+                for (int i = 0; i < REPORTED_WITHIN_DAYS.length; i++)
+                {
+                    if (reportedMillis[row] >= _nowMillis - REPORTED_WITHIN_DAYS[i] * DAY_MILLIS)
+                    {
+                        withinDays[i]++;
+                    }
+                }
+            }
+        }
+
+        var reportedWithinDays = new LinkedHashMap<Integer, Integer>();
+        for (int i = 0; i < REPORTED_WITHIN_DAYS.length; i++)
+        {
+            reportedWithinDays.put(REPORTED_WITHIN_DAYS[i], withinDays[i]);
+        }
+
+        return new IssueFacetCounts(categories, states, assignees, reporters, reportedWithinDays);
+    }
+
+    /**
+     * Returns the full name of a user that reported or was assigned an issue.
+     *
+     * @param _userId The ID of the user
+     * @return The user's full name, or null if no issue in the snapshot refers to them.
+     */
+    public String getUserName(int _userId)
+    {
+        return userNames.get(_userId);
+    }
+
+    /**
+     * Counts a range of rows, halving it until the ranges are small enough to count directly.
+     */
+    private final class AggregateTask extends RecursiveTask<IssueAggregate>
+    {
+        private final int from;
+        private final int to;
+        private final int threshold;
+        private final int categories;
+        private final int states;
+        private final int staff;
+
+        AggregateTask(int _from, int _to, int _threshold, int _categories, int _states, int _staff)
+        {
+            from = _from;
+            to = _to;
+            threshold = _threshold;
+            categories = _categories;
+            states = _states;
+            staff = _staff;
+        }
+
+        @Override
+        protected IssueAggregate compute()
+        {
+            if (to - from <= threshold)
+            {
+                var aggregate = new IssueAggregate(categories, states, staff);
+
+                for (int row = from; row < to; row++)
+                {
+                    aggregate.add(categoryIds[row], stateIds[row], assignedToIds[row], reportedMillis[row], resolvedMillis[row], NO_DATE);
+                }
+
+                return aggregate;
+            }
+
+            int middle = (from + to) >>> 1;
+            var left = new AggregateTask(from, middle, threshold, categories, states, staff);
+            var right = new AggregateTask(middle, to, threshold, categories, states, staff);
+            left.fork();
+            var rightAggregate = right.compute();
+            return left.join().combine(rightAggregate);
+        }
+    }
+
+    private int max(int[] _column)
+    {
+        int max = 0;
+
+        for (int row = 0; row < size; row++)
+        {
+            max = Math.max(max, _column[row]);
+        }
+
+        return max;
+    }
+}
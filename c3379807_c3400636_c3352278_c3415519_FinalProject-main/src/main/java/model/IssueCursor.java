@@ -0,0 +1,68 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * Represents a keyset pagination position in the issue listing.
+ * Issues are ordered by (dateReported, issueId), so the pair identifies a row uniquely.
+ */
+public record IssueCursor
+(
+    Date dateReported,
+    int issueId
+)
+{
+    /**
+     * Creates a cursor positioned on the given issue.
+     *
+     * @param _issue The issue the cursor points at.
+     * @return A cursor for the issue.
+     */
+    public static IssueCursor of(IssueSummary _issue)
+    {
+        return new IssueCursor(_issue.dateReported(), _issue.issueId());
+    }
+
+    /**
+     * Encodes the cursor into a URL safe token.
+     *
+     * @return A token of the form "epochMillis_issueId".
+     */
+    public String encode()
+    {
+        return dateReported.getTime() + "_" + issueId;
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     *
+     * @param _token The token to decode, may be null.
+     * @return The decoded cursor, or null if the token is missing or malformed.
+     */
+    public static IssueCursor decode(String _token)
+    {
+        if (_token == null || _token.isBlank())
+        {
+            return null;
+        }
+
+        int separator = _token.indexOf('_');
+
+        if (separator <= 0)
+        {
+            return null;
+        }
+
+        try
+        {
+            long epochMillis = Long.parseLong(_token.substring(0, separator));
+            int issueId = Integer.parseInt(_token.substring(separator + 1));
+
+            return new IssueCursor(new Date(epochMillis), issueId);
+        }
+        catch (NumberFormatException e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package model;
+
+import java.util.Date;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the changes made by the Issue update methods to the registered listeners.
+ * Inside a UnitOfWork the listeners are only notified once the transaction commits.
+ */
+public final class IssueEvents
+{
+    private static final CopyOnWriteArrayList<IssueListener> listeners = new CopyOnWriteArrayList<>();
+
+    private IssueEvents()
+    {
+    }
+
+    /**
+     * Registers a listener to be notified of issue changes. Registering the same listener again has no effect.
+     *
+     * @param _listener The listener to register
+     */
+    public static void register(IssueListener _listener)
+    {
+        listeners.addIfAbsent(_listener);
+    }
+
+    static void issueSaved(Issue _issue)
+    {
+        publish(listener -> listener.issueSaved(_issue));
+    }
+
+    static void issueAssigned(int _issueId, int _staffId)
+    {
+        publish(listener -> listener.issueAssigned(_issueId, _staffId));
+    }
+
+    static void issueStateChanged(int _issueId, int _stateId)
+    {
+        publish(listener -> listener.issueStateChanged(_issueId, _stateId));
+    }
+
+    static void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        publish(listener -> listener.issueResolved(_issueId, _stateId, _resolutionDetails, _dateResolved));
+    }
+
+    private static void publish(Consumer<IssueListener> _event)
+    {
+        UnitOfWork.afterCommit(() ->
+        {
+            for (var listener : listeners)
+            {
+                try
+                {
+                    _event.accept(listener);
+                }
+                catch (RuntimeException e)
+                {
+                    // A failing listener must not fail the write that has already been committed
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+}
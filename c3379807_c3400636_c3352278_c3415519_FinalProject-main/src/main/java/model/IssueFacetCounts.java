@@ -0,0 +1,24 @@
+package model;
+
+import java.util.Map;
+
+/**
+ * Represents the facet counts of the issue list: for each value of a facet, the number of issues that
+ * would match if that value were selected, given the values selected in the other facets.
+ *
+ * @param categories The number of matching issues in each category, by category ID
+ * @param states The number of matching issues in each state, by state ID
+ * @param assignees The number of matching issues assigned to each staff member, by user ID
+ * @param reporters The number of matching issues reported by each user, by user ID
+ * @param reportedWithinDays The number of matching issues reported within each of {@link IssueColumnsSnapshot#REPORTED_WITHIN_DAYS} days
+ */
+public record IssueFacetCounts
+(
+    Map<Integer, Integer> categories,
+    Map<Integer, Integer> states,
+    Map<Integer, Integer> assignees,
+    Map<Integer, Integer> reporters,
+    Map<Integer, Integer> reportedWithinDays
+)
+{
+}
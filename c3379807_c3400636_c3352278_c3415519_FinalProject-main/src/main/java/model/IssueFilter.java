@@ -0,0 +1,103 @@
+package model;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+
+/**
+ * Represents optional criteria used to narrow down a scan over [VW_Issue].
+ * A null field means that the criterion is not applied.
+ *
+ * @param categoryId Only issues in this category
+ * @param stateId Only issues in this state
+ * @param assignedToId Only issues assigned to this user
+ * @param reportedById Only issues reported by this user
+ * @param reportedFrom Only issues reported at or after this date
+ * @param reportedTo Only issues reported before this date
+ */
+public record IssueFilter
+(
+    Integer categoryId,
+    Integer stateId,
+    Integer assignedToId,
+    Integer reportedById,
+    Date reportedFrom,
+    Date reportedTo
+)
+{
+    /**
+     * Returns a filter that matches every issue.
+     *
+     * @return An empty filter.
+     */
+    public static IssueFilter none()
+    {
+        return new IssueFilter(null, null, null, null, null, null);
+    }
+
+    /**
+     * Builds the WHERE clause matching this filter, with a predicate for each criterion that is
+     * applied and none for the others.
+     *
+     * The text depends only on which criteria are applied, never on their values, and the predicates
+     * always come in the same order, so there are at most 64 shapes and every query built on this clause
+     * (the page query and the streams alike) reuses one cached plan per shape. Each plan is compiled for
+     * the columns actually filtered and can seek on them. A single catch-all statement such as
+     * "(? IS NULL OR categoryId = ?)" would instead share one plan compiled for whichever criteria it
+     * first saw, or need OPTION (RECOMPILE) on every execution.
+     *
+     * @return The WHERE clause, ending in a new line.
+     */
+    String whereClause()
+    {
+        var clause = new StringBuilder("WHERE 1 = 1\n");
+        append(clause, categoryId, "categoryId = ?");
+        append(clause, stateId, "stateId = ?");
+        append(clause, assignedToId, "assignedToId = ?");
+        append(clause, reportedById, "reportedById = ?");
+        append(clause, reportedFrom, "dateReported >= ?");
+        append(clause, reportedTo, "dateReported < ?");
+        return clause.toString();
+    }
+
+    /**
+     * Binds the parameters of {@link #whereClause()}.
+     *
+     * @param _statement The statement containing the WHERE clause
+     * @param _firstIndex The index of the first parameter of the WHERE clause
+     * @return The index of the first parameter after the WHERE clause.
+     * @throws SQLException if a parameter cannot be bound.
+     */
+    int bind(PreparedStatement _statement, int _firstIndex) throws SQLException
+    {
+        int index = _firstIndex;
+        index = bind(_statement, index, categoryId, Types.INTEGER);
+        index = bind(_statement, index, stateId, Types.INTEGER);
+        index = bind(_statement, index, assignedToId, Types.INTEGER);
+        index = bind(_statement, index, reportedById, Types.INTEGER);
+        index = bind(_statement, index, reportedFrom == null ? null : new Timestamp(reportedFrom.getTime()), Types.TIMESTAMP);
+        index = bind(_statement, index, reportedTo == null ? null : new Timestamp(reportedTo.getTime()), Types.TIMESTAMP);
+        return index;
+    }
+
+    private static void append(StringBuilder _clause, Object _value, String _predicate)
+    {
+        if (_value != null)
+        {
+            _clause.append("  AND ").append(_predicate).append('\n');
+        }
+    }
+
+    private static int bind(PreparedStatement _statement, int _index, Object _value, int _sqlType) throws SQLException
+    {
+        if (_value == null)
+        {
+            return _index;
+        }
+
+        _statement.setObject(_index, _value, _sqlType);
+        return _index + 1;
+    }
+}
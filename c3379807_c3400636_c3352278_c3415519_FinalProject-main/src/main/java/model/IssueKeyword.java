@@ -1,8 +1,11 @@
 package model;
 
 import java.sql.*;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Represents a keyword of an issue.
@@ -47,7 +50,7 @@ public record IssueKeyword
             {
                 int issueKeywordId = resultSet.getInt("issueKeywordId");
                 int keywordId = resultSet.getInt("keywordId");
-                String keyword = resultSet.getString("keyword");
+                String keyword = resultSet.getString("keywordName");
                 int issueId = resultSet.getInt("issueId");
                 String title = resultSet.getString("title");
 
@@ -63,13 +66,65 @@ public record IssueKeyword
         }
     }
 
+    /**
+     * Retrieves all the keywords from the database relating to each of the specified issues, in one round trip per 512 issues.
+     *
+     * @param _issueIds The IDs of the issues that the keywords are attached to
+     * @return A map from each issue ID to the list of IssueKeyword objects attached to it; issues without keywords map to an empty list.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<Integer, List<IssueKeyword>> getAllIssueKeywordsByIds(Collection<Integer> _issueIds) throws SQLException
+    {
+        return BatchQueries.groupByIssue(
+                """
+                SELECT *
+                FROM [VW_Issue_Keyword]""",
+                _issueIds,
+                IssueKeyword::readIssueKeyword,
+                IssueKeyword::issueId
+        );
+    }
+
+    /**
+     * Streams all the issue keywords from the database, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @return A stream of IssueKeyword objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<IssueKeyword> streamAllIssueKeywords() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT *
+                    FROM [VW_Issue_Keyword];
+                    """,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+
+            return ResultSetStreams.stream(connection, query, IssueKeyword::readIssueKeyword);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
     /**
      * Inserts an issue keyword in the database.
      *
      * @param _issueKeyword The issue keyword to be inserted.
+     * @return The ID generated for the inserted issue keyword.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertIssueKeyword(IssueKeyword _issueKeyword) throws SQLException
+    public static int insertIssueKeyword(IssueKeyword _issueKeyword) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -78,11 +133,73 @@ public record IssueKeyword
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Issue_Keyword] (issue_id, keyword_id) VALUES (?,?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setInt(1, _issueKeyword.issueId());
             query.setInt(2, _issueKeyword.keywordId());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int issueKeywordId = keys.next() ? keys.getInt(1) : 0;
+
+            KeywordIndex.keywordLinked(issueKeywordId, _issueKeyword.issueId(), _issueKeyword.keywordId());
+            return issueKeywordId;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Inserts the keywords of an issue in the database, up to {@link BatchQueries#MAX_CHUNK_SIZE} rows per statement.
+     *
+     * @param _issueId The ID of the issue that the keywords are attached to.
+     * @param _keywordIds The IDs of the keywords to attach.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void insertIssueKeywords(int _issueId, Collection<Integer> _keywordIds) throws SQLException
+    {
+        if (_keywordIds.isEmpty())
+        {
+            return;
+        }
+
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var keywordIds = List.copyOf(_keywordIds);
+
+            for (int start = 0; start < keywordIds.size(); start += BatchQueries.MAX_CHUNK_SIZE)
+            {
+                var chunk = keywordIds.subList(start, Math.min(start + BatchQueries.MAX_CHUNK_SIZE, keywordIds.size()));
+
+                // OUTPUT returns the ID of each new row, so the keyword index can record the links by row. The
+                // statement is closed here rather than with the connection, which a unit of work keeps open
+                try (var query = connection.prepareStatement(
+                        """
+                        INSERT INTO [Issue_Keyword] (issue_id, keyword_id)
+                        OUTPUT inserted.issue_keyword_id, inserted.keyword_id
+                        VALUES %s;
+                        """.formatted(",(?,?)".repeat(chunk.size()).substring(1))
+                ))
+                {
+                    for (int i = 0; i < chunk.size(); i++)
+                    {
+                        query.setInt(2 * i + 1, _issueId);
+                        query.setInt(2 * i + 2, chunk.get(i));
+                    }
+
+                    var resultSet = query.executeQuery();
+
+                    while (resultSet.next())
+                    {
+                        KeywordIndex.keywordLinked(resultSet.getInt("issue_keyword_id"), _issueId, resultSet.getInt("keyword_id"));
+                    }
+                }
+            }
         }
         finally
         {
@@ -104,17 +221,36 @@ public record IssueKeyword
         {
             var query = connection.prepareStatement(
                     """
-                    UPDATE [Issue_Keyword] SET issue_id = ?, keyword_id = ? WHERE issue_keyword_id = ?;
+                    UPDATE [Issue_Keyword] SET issue_id = ?, keyword_id = ?
+                    WHERE issue_keyword_id = ?;
                     """
             );
             query.setInt(1, _issueKeyword.issueId());
             query.setInt(2, _issueKeyword.keywordId());
-            query.setInt(2, _issueKeyword.issueKeywordId());
-            query.executeUpdate();
+            query.setInt(3, _issueKeyword.issueKeywordId());
+
+            if (query.executeUpdate() > 0)
+            {
+                KeywordIndex.keywordLinked(_issueKeyword.issueKeywordId(), _issueKeyword.issueId(), _issueKeyword.keywordId());
+            }
         }
         finally
         {
             connection.close();
         }
     }
+
+    /**
+     * Reads the issue keyword at the current row of a result set over [VW_Issue_Keyword].
+     */
+    private static IssueKeyword readIssueKeyword(ResultSet _resultSet) throws SQLException
+    {
+        int issueKeywordId = _resultSet.getInt("issueKeywordId");
+        int keywordId = _resultSet.getInt("keywordId");
+        String keyword = _resultSet.getString("keywordName");
+        int issueId = _resultSet.getInt("issueId");
+        String title = _resultSet.getString("title");
+
+        return new IssueKeyword(issueKeywordId, keywordId, keyword, issueId, title);
+    }
 }
\ No newline at end of file
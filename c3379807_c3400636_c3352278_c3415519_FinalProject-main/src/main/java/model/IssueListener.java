@@ -0,0 +1,52 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * Receives the changes made to issues through the model, once they have been committed.
+ * In-memory indexes and aggregates implement this to stay up to date without re-reading the database.
+ * Listeners are registered with {@link IssueEvents#register(IssueListener)}.
+ */
+public interface IssueListener
+{
+    /**
+     * Called after an issue has been inserted or fully updated.
+     *
+     * @param _issue The issue as written; fields filled in by the database view may be null.
+     */
+    default void issueSaved(Issue _issue)
+    {
+    }
+
+    /**
+     * Called after an issue has been assigned to a staff member.
+     *
+     * @param _issueId The ID of the issue
+     * @param _staffId The ID of the staff member the issue is now assigned to
+     */
+    default void issueAssigned(int _issueId, int _staffId)
+    {
+    }
+
+    /**
+     * Called after an issue has moved to another state.
+     *
+     * @param _issueId The ID of the issue
+     * @param _stateId The state that the issue is now in
+     */
+    default void issueStateChanged(int _issueId, int _stateId)
+    {
+    }
+
+    /**
+     * Called after the resolution of an issue has been recorded.
+     *
+     * @param _issueId The ID of the issue
+     * @param _stateId The state that the issue is now in
+     * @param _resolutionDetails The details of the resolution
+     * @param _dateResolved The date the issue was resolved
+     */
+    default void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+    }
+}
@@ -0,0 +1,28 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Represents one page of a keyset paginated issue listing.
+ *
+ * @param issues The issue summaries on this page, in display order.
+ * @param previousCursor The cursor to request the previous page with, or null on the first page.
+ * @param nextCursor The cursor to request the next page with, or null on the last page.
+ */
+public record IssuePage
+(
+    List<IssueSummary> issues,
+    IssueCursor previousCursor,
+    IssueCursor nextCursor
+)
+{
+    public boolean hasPrevious()
+    {
+        return previousCursor != null;
+    }
+
+    public boolean hasNext()
+    {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,611 @@
+package model;
+
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the issue statistics shown on /view-statistics as live counters.
+ *
+ * The counters are seeded once from the database by {@link #reload()} and then updated from the
+ * issue change events, so reading the statistics never scans VW_Issue. Each change is applied by
+ * removing the issue's previous contribution and adding its new one, which keeps every aggregate
+ * consistent whatever combination of fields changed.
+ *
+ * Resolution times are also kept as one {@link ResolutionSketch} per day and category and per day and
+ * staff member, so percentiles over any window of days are answered by merging a bounded number of
+ * sketches rather than reading the resolved issues.
+ *
+ * Open issues are indexed by report time, overall and per category and assignee, so the oldest K open
+ * issues are read from the front of an ordered set instead of sorting every open issue.
+ *
+ * Days are calendar days in the zone configured by itportal.statistics.zone, which defaults to the
+ * server's zone. The statistics page, the percentile windows and the daily rollup all use {@link #getZone()}.
+ */
+public final class IssueStatistics implements IssueListener
+{
+    private static final long DAY_MILLIS = 86400000L;
+    private static final double MINUTE_MILLIS = 60000.0;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int RESOLUTION_WINDOW_DAYS = 30;
+    private static final int LONGEST_UNRESOLVED_COUNT = 5;
+    private static final ZoneId ZONE = zone(ConfigBean.getSetting("itportal.statistics.zone", ""));
+
+    private static final IssueStatistics instance = new IssueStatistics();
+
+    static
+    {
+        IssueEvents.register(instance);
+    }
+
+    /**
+     * What the engine remembers about an issue, so its contribution can be removed when it changes.
+     */
+    private record Facts
+    (
+        int issueId,
+        String title,
+        int categoryId,
+        int stateId,
+        int assignedToId,
+        long reportedMillis,
+        long resolvedMillis
+    )
+    {
+        static Facts of(IssueSummary _issue)
+        {
+            return new Facts(_issue.issueId(), _issue.title(), _issue.categoryId(), _issue.stateId(), _issue.assignedToId(), millis(_issue.dateReported()), millis(_issue.dateResolved()));
+        }
+
+        static Facts of(Issue _issue)
+        {
+            return new Facts(_issue.issueId(), _issue.title(), _issue.categoryId(), _issue.stateId(), _issue.assignedToId(), millis(_issue.dateReported()), millis(_issue.dateResolved()));
+        }
+
+        boolean isOpen()
+        {
+            return stateId != State.RESOLVED && stateId != State.COMPLETED;
+        }
+    }
+
+    /**
+     * Orders open issues oldest first.
+     */
+    private static final Comparator<Facts> BY_REPORTED = Comparator.comparingLong(Facts::reportedMillis).thenComparingInt(Facts::issueId);
+
+    /**
+     * A built snapshot, with the version of the counters and the day it was built from.
+     */
+    private record CachedSnapshot(StatisticsSnapshot snapshot, long version, long epochDay)
+    {
+    }
+
+    private final Map<Integer, Facts> issues = new HashMap<>();
+    private final Map<Integer, Long> issuesPerCategory = new HashMap<>();
+    private final Map<Integer, Long> issuesPerState = new HashMap<>();
+    private final Map<Integer, Long> issuesPerStaff = new HashMap<>();
+
+    /**
+     * Resolved issues by the day they were resolved: {number of issues, total days taken to resolve}.
+     */
+    private final TreeMap<Long, long[]> resolvedPerDay = new TreeMap<>();
+
+    /**
+     * Resolution time sketches by the day issues were resolved, then by category or by assigned staff member.
+     */
+    private final TreeMap<Long, Map<Integer, ResolutionSketch>> resolutionPerCategory = new TreeMap<>();
+    private final TreeMap<Long, Map<Integer, ResolutionSketch>> resolutionPerStaff = new TreeMap<>();
+
+    /**
+     * Open issues with a report date, oldest first, overall and by category or assigned staff member.
+     */
+    private final TreeSet<Facts> openIssues = new TreeSet<>(BY_REPORTED);
+    private final Map<Integer, TreeSet<Facts>> openPerCategory = new HashMap<>();
+    private final Map<Integer, TreeSet<Facts>> openPerStaff = new HashMap<>();
+
+    private final Map<Integer, String> staffNames = new ConcurrentHashMap<>();
+
+    private boolean loaded;
+    private long version;
+    private volatile CachedSnapshot cached;
+
+    private IssueStatistics()
+    {
+    }
+
+    /**
+     * Seeds the counters from the database, replacing the current ones.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        synchronized (instance)
+        {
+            instance.issues.clear();
+            instance.issuesPerCategory.clear();
+            instance.issuesPerState.clear();
+            instance.issuesPerStaff.clear();
+            instance.resolvedPerDay.clear();
+            instance.resolutionPerCategory.clear();
+            instance.resolutionPerStaff.clear();
+            instance.openIssues.clear();
+            instance.openPerCategory.clear();
+            instance.openPerStaff.clear();
+
+            try (var summaries = IssueSummary.streamIssueSummaries(IssueFilter.none()))
+            {
+                summaries.forEach(summary ->
+                {
+                    instance.add(Facts.of(summary));
+
+                    if (summary.assignedToFullName() != null)
+                    {
+                        instance.staffNames.put(summary.assignedToId(), summary.assignedToFullName());
+                    }
+                });
+            }
+            catch (RuntimeException e)
+            {
+                if (e.getCause() instanceof SQLException sqlException)
+                {
+                    throw sqlException;
+                }
+                throw e;
+            }
+
+            instance.loaded = true;
+            instance.changed();
+        }
+    }
+
+    /**
+     * Returns the current statistics. The snapshot is rebuilt from the counters only after a change,
+     * or when the day rolls over and the resolution time window moves.
+     *
+     * @return A consistent snapshot of the statistics.
+     * @throws SQLException if the counters have not been seeded yet and seeding them fails.
+     */
+    public static StatisticsSnapshot getSnapshot() throws SQLException
+    {
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                reload();
+            }
+        }
+
+        var current = instance.cached;
+
+        if (current != null && current.epochDay() == LocalDate.now(ZONE).toEpochDay())
+        {
+            return current.snapshot();
+        }
+
+        return instance.buildSnapshot();
+    }
+
+    /**
+     * Returns the zone in which the statistics are divided into days.
+     *
+     * @return The configured statistics zone.
+     */
+    public static ZoneId getZone()
+    {
+        return ZONE;
+    }
+
+    private static ZoneId zone(String _zone)
+    {
+        return _zone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(_zone.trim());
+    }
+
+    /**
+     * Returns the open issues that were reported the longest time ago, optionally only those in a
+     * category or assigned to a staff member. Issues that are Resolved or Completed are not open.
+     *
+     * @param _count The maximum number of issues to return
+     * @param _categoryId The category of the issues, or null for every category
+     * @param _assignedToId The staff member the issues are assigned to, or null for everyone
+     * @return A list of OpenIssue objects, oldest first.
+     * @throws SQLException if the counters have not been seeded yet and seeding them fails.
+     */
+    public static List<OpenIssue> getOldestOpenIssues(int _count, Integer _categoryId, Integer _assignedToId) throws SQLException
+    {
+        synchronized (instance)
+        {
+            if (!instance.loaded)
+            {
+                reload();
+            }
+
+            return instance.oldestOpen(_count, _categoryId, _assignedToId);
+        }
+    }
+
+    /**
+     * Returns the resolution time percentiles of each category, for the issues resolved in a window of days.
+     *
+     * @param _from The first day of the window
+     * @param _to The last day of the window, inclusive
+     * @return The percentiles of each category with resolved issues in the window, by category name.
+     * @throws SQLException if the counters have not been seeded yet and seeding them fails.
+     */
+    public static List<ResolutionPercentiles> getResolutionPercentilesByCategory(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        var merged = instance.mergeSketches(instance.resolutionPerCategory, _from, _to);
+
+        var percentiles = new ArrayList<ResolutionPercentiles>(merged.size());
+        for (var entry : merged.entrySet())
+        {
+            percentiles.add(ResolutionPercentiles.of(nameOr(ReferenceData.getCategoryName(entry.getKey()), entry.getKey()), entry.getValue()));
+        }
+
+        percentiles.sort(Comparator.comparing(ResolutionPercentiles::name));
+        return percentiles;
+    }
+
+    /**
+     * Returns the resolution time percentiles of each staff member, for the issues resolved in a window of days.
+     *
+     * @param _from The first day of the window
+     * @param _to The last day of the window, inclusive
+     * @return The percentiles of each staff member with resolved issues in the window, by full name.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<ResolutionPercentiles> getResolutionPercentilesByStaff(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        var merged = instance.mergeSketches(instance.resolutionPerStaff, _from, _to);
+
+        var percentiles = new ArrayList<ResolutionPercentiles>(merged.size());
+        for (var entry : merged.entrySet())
+        {
+            percentiles.add(ResolutionPercentiles.of(instance.staffName(entry.getKey()), entry.getValue()));
+        }
+
+        percentiles.sort(Comparator.comparing(ResolutionPercentiles::name));
+        return percentiles;
+    }
+
+    /**
+     * Merges the sketches of each key over a window of days into new sketches, so the percentiles can
+     * be read outside the lock.
+     */
+    private Map<Integer, ResolutionSketch> mergeSketches(TreeMap<Long, Map<Integer, ResolutionSketch>> _sketches, LocalDate _from, LocalDate _to) throws SQLException
+    {
+        synchronized (this)
+        {
+            if (!loaded)
+            {
+                reload();
+            }
+
+            var merged = new HashMap<Integer, ResolutionSketch>();
+
+            for (var sketchesOfDay : _sketches.subMap(_from.toEpochDay(), true, _to.toEpochDay(), true).values())
+            {
+                for (var entry : sketchesOfDay.entrySet())
+                {
+                    merged.computeIfAbsent(entry.getKey(), key -> new ResolutionSketch()).merge(entry.getValue());
+                }
+            }
+
+            return merged;
+        }
+    }
+
+    @Override
+    public synchronized void issueSaved(Issue _issue)
+    {
+        if (_issue.assignedToFullName() != null)
+        {
+            staffNames.put(_issue.assignedToId(), _issue.assignedToFullName());
+        }
+
+        replace(Facts.of(_issue));
+    }
+
+    @Override
+    public synchronized void issueAssigned(int _issueId, int _staffId)
+    {
+        var facts = issues.get(_issueId);
+
+        if (facts != null)
+        {
+            replace(new Facts(facts.issueId(), facts.title(), facts.categoryId(), facts.stateId(), _staffId, facts.reportedMillis(), facts.resolvedMillis()));
+        }
+    }
+
+    @Override
+    public synchronized void issueStateChanged(int _issueId, int _stateId)
+    {
+        var facts = issues.get(_issueId);
+
+        if (facts != null)
+        {
+            // A reopened issue no longer has a resolution date
+            long resolvedMillis = State.isOpen(_stateId) ? NO_DATE : facts.resolvedMillis();
+            replace(new Facts(facts.issueId(), facts.title(), facts.categoryId(), _stateId, facts.assignedToId(), facts.reportedMillis(), resolvedMillis));
+        }
+    }
+
+    @Override
+    public synchronized void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        var facts = issues.get(_issueId);
+
+        if (facts != null)
+        {
+            replace(new Facts(facts.issueId(), facts.title(), facts.categoryId(), _stateId, facts.assignedToId(), facts.reportedMillis(), millis(_dateResolved)));
+        }
+    }
+
+    /**
+     * Replaces what is known about an issue. Events that arrive before the counters are seeded are
+     * ignored, since seeding reads the committed state of every issue anyway.
+     */
+    private void replace(Facts _facts)
+    {
+        if (!loaded)
+        {
+            return;
+        }
+
+        var previous = issues.get(_facts.issueId());
+
+        if (previous != null)
+        {
+            apply(previous, -1);
+        }
+
+        add(_facts);
+        changed();
+    }
+
+    private void add(Facts _facts)
+    {
+        issues.put(_facts.issueId(), _facts);
+        apply(_facts, 1);
+    }
+
+    /**
+     * Adds (+1) or removes (-1) the contribution of an issue to every counter.
+     */
+    private void apply(Facts _facts, int _sign)
+    {
+        count(issuesPerCategory, _facts.categoryId(), _sign);
+        count(issuesPerState, _facts.stateId(), _sign);
+
+        if (_facts.assignedToId() != 0)
+        {
+            count(issuesPerStaff, _facts.assignedToId(), _sign);
+        }
+
+        index(_facts, _sign);
+
+        if (_facts.stateId() == State.RESOLVED && _facts.resolvedMillis() != NO_DATE && _facts.reportedMillis() != NO_DATE)
+        {
+            long day = Instant.ofEpochMilli(_facts.resolvedMillis()).atZone(ZONE).toLocalDate().toEpochDay();
+            long daysToResolve = (_facts.resolvedMillis() - _facts.reportedMillis()) / DAY_MILLIS;
+
+            var totals = resolvedPerDay.computeIfAbsent(day, key -> new long[2]);
+            totals[0] += _sign;
+            totals[1] += _sign * daysToResolve;
+
+            if (totals[0] == 0)
+            {
+                resolvedPerDay.remove(day);
+            }
+
+            double minutesToResolve = (_facts.resolvedMillis() - _facts.reportedMillis()) / MINUTE_MILLIS;
+
+            sketch(resolutionPerCategory, day, _facts.categoryId(), minutesToResolve, _sign);
+
+            if (_facts.assignedToId() != 0)
+            {
+                sketch(resolutionPerStaff, day, _facts.assignedToId(), minutesToResolve, _sign);
+            }
+        }
+    }
+
+    /**
+     * Adds (+1) or removes (-1) an open issue from the ordered indexes.
+     */
+    private void index(Facts _facts, int _sign)
+    {
+        if (!_facts.isOpen() || _facts.reportedMillis() == NO_DATE)
+        {
+            return;
+        }
+
+        index(openIssues, _facts, _sign);
+        index(openPerCategory.computeIfAbsent(_facts.categoryId(), key -> new TreeSet<>(BY_REPORTED)), _facts, _sign);
+
+        if (_facts.assignedToId() != 0)
+        {
+            index(openPerStaff.computeIfAbsent(_facts.assignedToId(), key -> new TreeSet<>(BY_REPORTED)), _facts, _sign);
+        }
+    }
+
+    private static void index(TreeSet<Facts> _index, Facts _facts, int _sign)
+    {
+        if (_sign > 0)
+        {
+            _index.add(_facts);
+        }
+        else
+        {
+            _index.remove(_facts);
+        }
+    }
+
+    private static void sketch(TreeMap<Long, Map<Integer, ResolutionSketch>> _sketches, long _day, int _key, double _minutes, int _sign)
+    {
+        var sketchesOfDay = _sketches.computeIfAbsent(_day, key -> new HashMap<>());
+        var sketch = sketchesOfDay.computeIfAbsent(_key, key -> new ResolutionSketch());
+        sketch.add(_minutes, _sign);
+
+        if (sketch.isEmpty())
+        {
+            sketchesOfDay.remove(_key);
+
+            if (sketchesOfDay.isEmpty())
+            {
+                _sketches.remove(_day);
+            }
+        }
+    }
+
+    private static void count(Map<Integer, Long> _counts, int _key, int _sign)
+    {
+        _counts.merge(_key, (long) _sign, (current, delta) -> current + delta == 0 ? null : current + delta);
+    }
+
+    private void changed()
+    {
+        version++;
+        cached = null;
+    }
+
+    private StatisticsSnapshot buildSnapshot() throws SQLException
+    {
+        long builtVersion;
+        long today = LocalDate.now(ZONE).toEpochDay();
+        Map<Integer, Long> perCategory;
+        Map<Integer, Long> perState;
+        Map<Integer, Long> perStaff;
+        long resolvedCount = 0;
+        long resolvedDays = 0;
+        List<OpenIssue> longestUnresolved;
+
+        synchronized (this)
+        {
+            builtVersion = version;
+            perCategory = new HashMap<>(issuesPerCategory);
+            perState = new HashMap<>(issuesPerState);
+            perStaff = new HashMap<>(issuesPerStaff);
+
+            for (var totals : resolvedPerDay.tailMap(today - RESOLUTION_WINDOW_DAYS, true).values())
+            {
+                resolvedCount += totals[0];
+                resolvedDays += totals[1];
+            }
+
+            longestUnresolved = List.copyOf(oldestOpen(LONGEST_UNRESOLVED_COUNT, null, null));
+        }
+
+        // Resolve ids to names outside the lock, as unknown staff names are read from the database
+        var categoryNames = new LinkedHashMap<String, Long>();
+        for (var entry : perCategory.entrySet())
+        {
+            categoryNames.merge(nameOr(ReferenceData.getCategoryName(entry.getKey()), entry.getKey()), entry.getValue(), Long::sum);
+        }
+
+        var stateNames = new LinkedHashMap<String, Long>();
+        for (var entry : perState.entrySet())
+        {
+            stateNames.merge(nameOr(ReferenceData.getStateName(entry.getKey()), entry.getKey()), entry.getValue(), Long::sum);
+        }
+
+        var staffCounts = new LinkedHashMap<String, Long>();
+        for (var entry : perStaff.entrySet())
+        {
+            staffCounts.merge(staffName(entry.getKey()), entry.getValue(), Long::sum);
+        }
+
+        double averageResolutionTime = resolvedCount == 0 ? 0 : (double) resolvedDays / resolvedCount;
+
+        var snapshot = new StatisticsSnapshot(categoryNames, stateNames, staffCounts, averageResolutionTime, longestUnresolved);
+
+        synchronized (this)
+        {
+            if (version == builtVersion)
+            {
+                cached = new CachedSnapshot(snapshot, builtVersion, today);
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Reads the oldest open issues from the front of the smallest matching index. When both a category
+     * and an assignee are given, the assignee's issues are filtered by category, which stays cheap as
+     * one staff member only has a handful of open issues.
+     */
+    private List<OpenIssue> oldestOpen(int _count, Integer _categoryId, Integer _assignedToId)
+    {
+        TreeSet<Facts> index;
+
+        if (_assignedToId != null)
+        {
+            index = openPerStaff.get(_assignedToId);
+        }
+        else if (_categoryId != null)
+        {
+            index = openPerCategory.get(_categoryId);
+        }
+        else
+        {
+            index = openIssues;
+        }
+
+        var result = new ArrayList<OpenIssue>(Math.max(Math.min(_count, 16), 0));
+
+        if (index == null)
+        {
+            return result;
+        }
+
+        for (var facts : index)
+        {
+            if (result.size() >= _count)
+            {
+                break;
+            }
+
+            if (_categoryId == null || facts.categoryId() == _categoryId)
+            {
+                result.add(new OpenIssue(facts.issueId(), facts.title(), facts.categoryId(), facts.assignedToId(), new Date(facts.reportedMillis())));
+            }
+        }
+
+        return result;
+    }
+
+    private String staffName(int _staffId) throws SQLException
+    {
+        var name = staffNames.get(_staffId);
+
+        if (name == null)
+        {
+            var user = User.getUserById(_staffId);
+            name = user == null ? "User " + _staffId : user.fullName();
+            staffNames.put(_staffId, name);
+        }
+
+        return name;
+    }
+
+    private static String nameOr(String _name, int _id)
+    {
+        return _name != null ? _name : "#" + _id;
+    }
+
+    private static long millis(Date _date)
+    {
+        return _date == null ? NO_DATE : _date.getTime();
+    }
+}
@@ -0,0 +1,181 @@
+package model;
+
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Represents one row of the daily rollup of resolved issues, per category.
+ * The rollup lets long-range resolution time statistics read a few hundred rows instead of scanning [Issue].
+ */
+public record IssueStatsDaily
+(
+    Date statDate,
+    int categoryId,
+    int resolvedCount,
+    long totalResolutionDays
+)
+{
+    /**
+     * Recomputes the rollup rows for a range of days from the [Issue] table, replacing any existing rows.
+     * Only issues in the Resolved state are counted, by the day they were resolved.
+     *
+     * Every application instance schedules the rollup, so the transaction first takes an exclusive
+     * application lock. An instance that finds the lock held skips the rollup, as the instance holding
+     * it is already replacing the same rows.
+     *
+     * @param _from The first day to roll up
+     * @param _to The last day to roll up, inclusive
+     * @return true if the rows were replaced, false if another instance was rolling up.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static boolean rollUp(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        try (var unitOfWork = UnitOfWork.begin())
+        {
+            var connection = ConfigBean.getConnection();
+
+            // Released when the transaction commits or rolls back
+            var lock = connection.prepareStatement(
+                    """
+                    DECLARE @result INT;
+                    EXEC @result = sp_getapplock @Resource = 'Issue_Stats_Daily_rollup', @LockMode = 'Exclusive', @LockOwner = 'Transaction', @LockTimeout = 0;
+                    SELECT @result AS result;
+                    """
+            );
+            var lockResult = lock.executeQuery();
+
+            if (!lockResult.next() || lockResult.getInt("result") < 0)
+            {
+                return false;
+            }
+
+            var delete = connection.prepareStatement(
+                    """
+                    DELETE FROM [Issue_Stats_Daily] WHERE stat_date BETWEEN ? AND ?;
+                    """
+            );
+            delete.setDate(1, java.sql.Date.valueOf(_from));
+            delete.setDate(2, java.sql.Date.valueOf(_to));
+            delete.executeUpdate();
+
+            var insert = connection.prepareStatement(
+                    """
+                    INSERT INTO [Issue_Stats_Daily] (stat_date, category_id, resolved_count, total_resolution_days)
+                    SELECT CAST(date_resolved AS DATE), category_id, COUNT(*), SUM(CAST(DATEDIFF(hour, date_reported, date_resolved) / 24 AS BIGINT))
+                    FROM [Issue]
+                    WHERE state_id = ? AND date_resolved >= ? AND date_resolved < ?
+                    GROUP BY CAST(date_resolved AS DATE), category_id;
+                    """
+            );
+            insert.setInt(1, State.RESOLVED);
+            insert.setTimestamp(2, Timestamp.valueOf(_from.atStartOfDay()));
+            insert.setTimestamp(3, Timestamp.valueOf(_to.plusDays(1).atStartOfDay()));
+            insert.executeUpdate();
+
+            unitOfWork.commit();
+            return true;
+        }
+    }
+
+    /**
+     * Retrieves the rollup rows for a range of days.
+     *
+     * @param _from The first day to retrieve
+     * @param _to The last day to retrieve, inclusive
+     * @return A list of IssueStatsDaily objects ordered by day and category.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<IssueStatsDaily> getIssueStatsDaily(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT stat_date, category_id, resolved_count, total_resolution_days
+                    FROM [Issue_Stats_Daily]
+                    WHERE stat_date BETWEEN ? AND ?
+                    ORDER BY stat_date, category_id;
+                    """
+            );
+            query.setDate(1, java.sql.Date.valueOf(_from));
+            query.setDate(2, java.sql.Date.valueOf(_to));
+
+            var resultSet = query.executeQuery();
+
+            var rows = new LinkedList<IssueStatsDaily>();
+
+            while (resultSet.next())
+            {
+                Date statDate = resultSet.getDate("stat_date");
+                int categoryId = resultSet.getInt("category_id");
+                int resolvedCount = resultSet.getInt("resolved_count");
+                long totalResolutionDays = resultSet.getLong("total_resolution_days");
+
+                rows.add(new IssueStatsDaily(statDate, categoryId, resolvedCount, totalResolutionDays));
+            }
+
+            return rows;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Calculates the average number of days it took to resolve the issues resolved since a given day.
+     * Past days are read from the rollup; today, which has not been rolled up yet, is read from [Issue].
+     *
+     * @param _from The first day of the window
+     * @return The average resolution time in days, or 0 if no issues were resolved in the window.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static double getAverageResolutionDays(LocalDate _from) throws SQLException
+    {
+        var today = LocalDate.now(IssueStatistics.getZone());
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT SUM(resolvedCount) AS resolvedCount, SUM(totalDays) AS totalDays
+                    FROM (
+                        SELECT resolved_count AS resolvedCount, total_resolution_days AS totalDays
+                        FROM [Issue_Stats_Daily]
+                        WHERE stat_date >= ? AND stat_date < ?
+                        UNION ALL
+                        SELECT 1, CAST(DATEDIFF(hour, date_reported, date_resolved) / 24 AS BIGINT)
+                        FROM [Issue]
+                        WHERE state_id = ? AND date_resolved >= ?
+                    ) totals;
+                    """
+            );
+            query.setDate(1, java.sql.Date.valueOf(_from));
+            query.setDate(2, java.sql.Date.valueOf(today));
+            query.setInt(3, State.RESOLVED);
+            query.setTimestamp(4, Timestamp.valueOf(today.atStartOfDay()));
+
+            var resultSet = query.executeQuery();
+
+            if (resultSet.next())
+            {
+                long resolvedCount = resultSet.getLong("resolvedCount");
+                long totalDays = resultSet.getLong("totalDays");
+
+                return resolvedCount == 0 ? 0 : (double) totalDays / resolvedCount;
+            }
+
+            return 0;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+}
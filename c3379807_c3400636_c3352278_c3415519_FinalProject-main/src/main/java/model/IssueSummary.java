@@ -0,0 +1,226 @@
+package model;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Represents a lightweight view of an issue for list and dashboard pages.
+ * Unlike {@link Issue} it leaves out the description and resolution details text columns,
+ * which the lists never show; use Issue.getIssue for detail views.
+ */
+public record IssueSummary
+(
+     int issueId,
+     String title,
+     int categoryId,
+     String category,
+     int stateId,
+     String state,
+     Date dateReported,
+     Date dateResolved,
+     int reportedById,
+     String reportedByFullName,
+     int assignedToId,
+     String assignedToFullName
+)
+{
+    /**
+     * The columns of [VW_Issue] that make up a summary.
+     */
+    private static final String COLUMNS = "issueId, title, categoryId, category, stateId, state, dateReported, dateResolved, "
+            + "reportedById, reportedByFullName, assignedToId, assignedToFullName";
+
+    /**
+     * Retrieves a summary of all the issues from the database.
+     *
+     * @return A list of IssueSummary objects representing all the issues in the database.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<IssueSummary> getAllIssueSummaries() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    "SELECT " + COLUMNS + "\n"
+                    + "FROM [VW_Issue];"
+            );
+
+            var resultSet = query.executeQuery();
+
+            var issues = new LinkedList<IssueSummary>();
+
+            while (resultSet.next())
+            {
+                issues.add(readSummary(resultSet));
+            }
+
+            return issues;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Streams a summary of the issues from the database that match a filter, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @param _filter The criteria that the issues must match
+     * @return A stream of IssueSummary objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<IssueSummary> streamIssueSummaries(IssueFilter _filter) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    "SELECT " + COLUMNS + "\nFROM [VW_Issue]\n" + _filter.whereClause(),
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+            _filter.bind(query, 1);
+
+            return ResultSetStreams.stream(connection, query, IssueSummary::readSummary);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves one page of issue summaries using keyset (seek) pagination on (dateReported, issueId).
+     * Only one of the cursors should be supplied; if both are null the first page is returned.
+     *
+     * @param _filter The criteria that the issues on the page must match
+     * @param _pageSize The maximum number of issue summaries on the page
+     * @param _after The cursor of the last issue on the previous page, to move forwards
+     * @param _before The cursor of the first issue on the next page, to move backwards
+     * @param _direction The direction that the issues are sorted by report date
+     * @return An IssuePage holding the issue summaries and the cursors of the neighbouring pages.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static IssuePage getIssueSummariesPage(IssueFilter _filter, int _pageSize, IssueCursor _after, IssueCursor _before, SortDirection _direction) throws SQLException
+    {
+        boolean backwards = _before != null;
+        IssueCursor cursor = backwards ? _before : _after;
+        SortDirection seekDirection = backwards ? _direction.reverse() : _direction;
+
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(pageQuery(_filter, seekDirection, cursor != null));
+
+            // Fetch one extra row to find out whether there is another page in the seek direction
+            query.setInt(1, _pageSize + 1);
+            int index = _filter.bind(query, 2);
+
+            if (cursor != null)
+            {
+                var reported = new Timestamp(cursor.dateReported().getTime());
+                query.setTimestamp(index, reported);
+                query.setTimestamp(index + 1, reported);
+                query.setInt(index + 2, cursor.issueId());
+            }
+
+            var resultSet = query.executeQuery();
+
+            var issues = new ArrayList<IssueSummary>(_pageSize + 1);
+
+            while (resultSet.next())
+            {
+                issues.add(readSummary(resultSet));
+            }
+
+            boolean hasMore = issues.size() > _pageSize;
+
+            if (hasMore)
+            {
+                issues.remove(issues.size() - 1);
+            }
+
+            if (backwards)
+            {
+                Collections.reverse(issues);
+            }
+
+            if (issues.isEmpty())
+            {
+                return new IssuePage(issues, null, null);
+            }
+
+            boolean hasPrevious = backwards ? hasMore : cursor != null;
+            boolean hasNext = backwards || hasMore;
+
+            return new IssuePage
+            (
+                issues,
+                hasPrevious ? IssueCursor.of(issues.get(0)) : null,
+                hasNext ? IssueCursor.of(issues.get(issues.size() - 1)) : null
+            );
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Builds the keyset page query. The page size and cursor are parameters like the filter values, so
+     * the text depends only on the shape of {@link IssueFilter#whereClause()}, the direction and whether
+     * there is a cursor, and every page of every filter with the same criteria reuses one cached plan.
+     *
+     * The cursor date is cast to datetime, the type of date_reported. A Timestamp parameter is sent as
+     * datetime2, and comparing against it would promote the column instead: a row reported at .003 is
+     * stored as 3.33 ms, so it would not equal its own cursor of 3 ms and the next page would repeat or skip rows.
+     */
+    static String pageQuery(IssueFilter _filter, SortDirection _direction, boolean _hasCursor)
+    {
+        String comparison = _direction == SortDirection.ASCENDING ? ">" : "<";
+        String order = _direction == SortDirection.ASCENDING ? "ASC" : "DESC";
+
+        String seek = _hasCursor
+                ? "  AND (dateReported " + comparison + " CAST(? AS datetime) OR (dateReported = CAST(? AS datetime) AND issueId " + comparison + " ?))\n"
+                : "";
+
+        return "SELECT TOP (?) " + COLUMNS + "\n"
+                + "FROM [VW_Issue]\n"
+                + _filter.whereClause()
+                + seek
+                + "ORDER BY dateReported " + order + ", issueId " + order + ";";
+    }
+
+    /**
+     * Reads the issue summary at the current row of a result set over [VW_Issue].
+     */
+    private static IssueSummary readSummary(ResultSet _resultSet) throws SQLException
+    {
+        int issueId = _resultSet.getInt("issueId");
+        String title = _resultSet.getString("title");
+        int categoryId = _resultSet.getInt("categoryId");
+        String category = _resultSet.getString("category");
+        int stateId = _resultSet.getInt("stateId");
+        String state = _resultSet.getString("state");
+        Date dateReported = _resultSet.getTimestamp("dateReported");
+        Date dateResolved = _resultSet.getTimestamp("dateResolved");
+        int reportedById = _resultSet.getInt("reportedById");
+        String reportedByFullName = _resultSet.getString("reportedByFullName");
+        int assignedToId = _resultSet.getInt("assignedToId");
+        String assignedToFullName = _resultSet.getString("assignedToFullName");
+
+        return new IssueSummary(issueId, title, categoryId, category, stateId, state, dateReported, dateResolved, reportedById, reportedByFullName, assignedToId, assignedToFullName);
+    }
+}
\ No newline at end of file
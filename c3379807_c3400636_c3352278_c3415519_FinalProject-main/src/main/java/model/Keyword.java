@@ -29,7 +29,7 @@ public record Keyword
 
             var query = """
                     SELECT *
-                    FROM [Issue]
+                    FROM [Keyword]
                     """;
 
             var resultSet = statement.executeQuery(query);
@@ -57,9 +57,10 @@ public record Keyword
      * Inserts a keyword in the database.
      *
      * @param _keyword The keyword to be inserted.
+     * @return The ID generated for the inserted keyword.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertKeyword(Keyword _keyword) throws SQLException
+    public static int insertKeyword(Keyword _keyword) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -68,10 +69,18 @@ public record Keyword
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Keyword] (keyword_name) VALUES (?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _keyword.keyword());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int keywordId = keys.next() ? keys.getInt(1) : 0;
+
+            ReferenceData.putKeyword(new Keyword(keywordId, _keyword.keyword()));
+            AutocompleteIndex.keywordSaved(new Keyword(keywordId, _keyword.keyword()));
+            return keywordId;
         }
         finally
         {
@@ -99,6 +108,9 @@ public record Keyword
             query.setString(1, _keyword.keyword());
             query.setInt(2, _keyword.keywordId());
             query.executeUpdate();
+
+            ReferenceData.putKeyword(_keyword);
+            AutocompleteIndex.keywordSaved(_keyword);
         }
         finally
         {
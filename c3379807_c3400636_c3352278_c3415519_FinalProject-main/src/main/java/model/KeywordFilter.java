@@ -0,0 +1,41 @@
+package model;
+
+import java.util.Set;
+
+/**
+ * Represents a boolean combination of keywords, optionally narrowed to a category and state, that
+ * issues are matched against by {@link KeywordIndex}. An empty set or a null field means that the
+ * criterion is not applied.
+ *
+ * @param allOf Only issues that have every one of these keywords
+ * @param anyOf Only issues that have at least one of these keywords
+ * @param noneOf Only issues that have none of these keywords
+ * @param categoryId Only issues in this category
+ * @param stateId Only issues in this state
+ */
+public record KeywordFilter
+(
+    Set<Integer> allOf,
+    Set<Integer> anyOf,
+    Set<Integer> noneOf,
+    Integer categoryId,
+    Integer stateId
+)
+{
+    public KeywordFilter
+    {
+        allOf = allOf == null ? Set.of() : Set.copyOf(allOf);
+        anyOf = anyOf == null ? Set.of() : Set.copyOf(anyOf);
+        noneOf = noneOf == null ? Set.of() : Set.copyOf(noneOf);
+    }
+
+    /**
+     * Returns a filter that matches every issue.
+     *
+     * @return A filter with no criteria.
+     */
+    public static KeywordFilter none()
+    {
+        return new KeywordFilter(Set.of(), Set.of(), Set.of(), null, null);
+    }
+}
@@ -0,0 +1,312 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.BitSet;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A bitmap index of issues by keyword, category and state, for boolean keyword filters and facet counts.
+ *
+ * Each keyword, category and state has a bitmap with the bit of every matching issue ID set, so a
+ * filter such as "Login AND Network AND NOT Hardware" is a few word-wise AND/ANDNOT operations and
+ * a facet count is the cardinality of an intersection. Issue IDs are dense identity values, so an
+ * uncompressed {@link BitSet} costs one bit per issue per bitmap.
+ *
+ * The index is seeded by {@link #reload()} and then kept up to date from the issue change events and
+ * from the IssueKeyword insert and update methods, through {@link LiveIndex}.
+ */
+public final class KeywordIndex implements IssueListener
+{
+    private static final LiveIndex<KeywordIndex> index = new LiveIndex<>(KeywordIndex::load);
+
+    static
+    {
+        IssueEvents.register(index);
+    }
+
+    private final BitSet allIssues = new BitSet();
+    private final Map<Integer, BitSet> issuesPerKeyword = new HashMap<>();
+    private final Map<Integer, BitSet> issuesPerCategory = new HashMap<>();
+    private final Map<Integer, BitSet> issuesPerState = new HashMap<>();
+
+    /**
+     * The current category and state of each issue, so its bits can be moved when they change.
+     */
+    private final Map<Integer, Integer> categoryOf = new HashMap<>();
+    private final Map<Integer, Integer> stateOf = new HashMap<>();
+
+    /**
+     * The (keyword, issue) pair that each Issue_Keyword row links, by issue_keyword_id. Links are recorded
+     * by row rather than counted up and down, so recording the same row twice changes nothing.
+     */
+    private final Map<Integer, Long> linkOf = new HashMap<>();
+
+    /**
+     * How many Issue_Keyword rows link each (keyword, issue) pair; the table allows duplicates.
+     */
+    private final Map<Long, Integer> links = new HashMap<>();
+
+    KeywordIndex()
+    {
+    }
+
+    /**
+     * Rebuilds the index from the issues and issue keywords in the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        index.reload();
+    }
+
+    private static KeywordIndex load() throws SQLException
+    {
+        var loaded = new KeywordIndex();
+
+        try (var summaries = IssueSummary.streamIssueSummaries(IssueFilter.none()))
+        {
+            summaries.forEach(summary -> loaded.putIssue(summary.issueId(), summary.categoryId(), summary.stateId()));
+        }
+
+        try (var issueKeywords = IssueKeyword.streamAllIssueKeywords())
+        {
+            issueKeywords.forEach(issueKeyword -> loaded.link(issueKeyword.issueKeywordId(), issueKeyword.issueId(), issueKeyword.keywordId()));
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Returns the IDs of the issues matching a filter.
+     *
+     * @param _filter The keywords, category and state to match
+     * @return The IDs of the matching issues, in ascending order.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static int[] getMatchingIssueIds(KeywordFilter _filter) throws SQLException
+    {
+        return index.read(keywords -> keywords.match(_filter).stream().toArray());
+    }
+
+    /**
+     * Counts the issues matching a filter.
+     *
+     * @param _filter The keywords, category and state to match
+     * @return The number of matching issues.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static int countMatchingIssues(KeywordFilter _filter) throws SQLException
+    {
+        return index.read(keywords -> keywords.match(_filter).cardinality());
+    }
+
+    /**
+     * Counts, for each keyword, the issues matching a filter that also have that keyword.
+     *
+     * @param _filter The keywords, category and state to match
+     * @return A map from keyword ID to the number of matching issues with that keyword; keywords with none are left out.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static Map<Integer, Integer> getKeywordCounts(KeywordFilter _filter) throws SQLException
+    {
+        return index.read(keywords -> counts(keywords.match(_filter), keywords.issuesPerKeyword));
+    }
+
+    /**
+     * Counts, for each category, the issues matching a filter that are in that category.
+     *
+     * @param _filter The keywords, category and state to match
+     * @return A map from category ID to the number of matching issues in that category.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static Map<Integer, Integer> getCategoryCounts(KeywordFilter _filter) throws SQLException
+    {
+        return index.read(keywords -> counts(keywords.match(_filter), keywords.issuesPerCategory));
+    }
+
+    /**
+     * Counts, for each state, the issues matching a filter that are in that state.
+     *
+     * @param _filter The keywords, category and state to match
+     * @return A map from state ID to the number of matching issues in that state.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static Map<Integer, Integer> getStateCounts(KeywordFilter _filter) throws SQLException
+    {
+        return index.read(keywords -> counts(keywords.match(_filter), keywords.issuesPerState));
+    }
+
+    /**
+     * Records the issue and keyword that an Issue_Keyword row links once the current unit of work has committed.
+     */
+    static void keywordLinked(int _issueKeywordId, int _issueId, int _keywordId)
+    {
+        UnitOfWork.afterCommit(() -> index.write(keywords -> keywords.link(_issueKeywordId, _issueId, _keywordId)));
+    }
+
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        putIssue(_issue.issueId(), _issue.categoryId(), _issue.stateId());
+    }
+
+    @Override
+    public void issueStateChanged(int _issueId, int _stateId)
+    {
+        moveState(_issueId, _stateId);
+    }
+
+    @Override
+    public void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        moveState(_issueId, _stateId);
+    }
+
+    /**
+     * Builds the bitmap of the issues matching a filter. The result is a new bitmap owned by the caller.
+     */
+    BitSet match(KeywordFilter _filter)
+    {
+        BitSet result;
+
+        if (_filter.categoryId() != null)
+        {
+            result = copy(issuesPerCategory.get(_filter.categoryId()));
+        }
+        else if (!_filter.allOf().isEmpty())
+        {
+            result = copy(issuesPerKeyword.get(_filter.allOf().iterator().next()));
+        }
+        else
+        {
+            result = (BitSet) allIssues.clone();
+        }
+
+        if (_filter.stateId() != null)
+        {
+            result.and(bitmap(issuesPerState, _filter.stateId()));
+        }
+
+        for (int keywordId : _filter.allOf())
+        {
+            result.and(bitmap(issuesPerKeyword, keywordId));
+        }
+
+        if (!_filter.anyOf().isEmpty())
+        {
+            var any = new BitSet();
+            for (int keywordId : _filter.anyOf())
+            {
+                any.or(bitmap(issuesPerKeyword, keywordId));
+            }
+            result.and(any);
+        }
+
+        for (int keywordId : _filter.noneOf())
+        {
+            result.andNot(bitmap(issuesPerKeyword, keywordId));
+        }
+
+        return result;
+    }
+
+    private static Map<Integer, Integer> counts(BitSet _matching, Map<Integer, BitSet> _bitmaps)
+    {
+        var counts = new HashMap<Integer, Integer>();
+
+        for (var entry : _bitmaps.entrySet())
+        {
+            if (entry.getValue().intersects(_matching))
+            {
+                var intersection = (BitSet) entry.getValue().clone();
+                intersection.and(_matching);
+                counts.put(entry.getKey(), intersection.cardinality());
+            }
+        }
+
+        return counts;
+    }
+
+    void putIssue(int _issueId, int _categoryId, int _stateId)
+    {
+        allIssues.set(_issueId);
+        move(issuesPerCategory, categoryOf.put(_issueId, _categoryId), _categoryId, _issueId);
+        move(issuesPerState, stateOf.put(_issueId, _stateId), _stateId, _issueId);
+    }
+
+    private void moveState(int _issueId, int _stateId)
+    {
+        if (allIssues.get(_issueId))
+        {
+            move(issuesPerState, stateOf.put(_issueId, _stateId), _stateId, _issueId);
+        }
+    }
+
+    /**
+     * Moves an issue's bit from the bitmap of its previous value, if any, to the bitmap of its new value.
+     */
+    private static void move(Map<Integer, BitSet> _bitmaps, Integer _previous, int _current, int _issueId)
+    {
+        if (_previous != null && _previous != _current)
+        {
+            clear(_bitmaps, _previous, _issueId);
+        }
+
+        _bitmaps.computeIfAbsent(_current, key -> new BitSet()).set(_issueId);
+    }
+
+    /**
+     * Records the (keyword, issue) pair an Issue_Keyword row links, moving the row off the pair it linked before, if any.
+     */
+    void link(int _issueKeywordId, int _issueId, int _keywordId)
+    {
+        long pair = ((long) _keywordId << 32) | (_issueId & 0xFFFFFFFFL);
+        var previous = linkOf.put(_issueKeywordId, pair);
+
+        if (previous != null)
+        {
+            if (previous == pair)
+            {
+                return;
+            }
+
+            if (links.merge(previous, -1, Integer::sum) == 0)
+            {
+                links.remove(previous);
+                clear(issuesPerKeyword, (int) (previous >>> 32), previous.intValue());
+            }
+        }
+
+        links.merge(pair, 1, Integer::sum);
+        issuesPerKeyword.computeIfAbsent(_keywordId, id -> new BitSet()).set(_issueId);
+    }
+
+    private static void clear(Map<Integer, BitSet> _bitmaps, int _key, int _issueId)
+    {
+        var bitmap = _bitmaps.get(_key);
+
+        if (bitmap != null)
+        {
+            bitmap.clear(_issueId);
+
+            if (bitmap.isEmpty())
+            {
+                _bitmaps.remove(_key);
+            }
+        }
+    }
+
+    private static BitSet bitmap(Map<Integer, BitSet> _bitmaps, int _key)
+    {
+        var bitmap = _bitmaps.get(_key);
+        return bitmap != null ? bitmap : new BitSet();
+    }
+
+    private static BitSet copy(BitSet _bitmap)
+    {
+        return _bitmap != null ? (BitSet) _bitmap.clone() : new BitSet();
+    }
+}
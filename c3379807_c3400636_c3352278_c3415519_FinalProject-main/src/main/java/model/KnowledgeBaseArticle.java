@@ -1,9 +1,12 @@
 package model;
 
 import java.sql.*;
+import java.util.Collection;
 import java.util.Date;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Represents a knowledge base article in the system.
@@ -14,6 +17,8 @@ public record KnowledgeBaseArticle
     int issueId,
     String issueTitle,
     String issueDescription,
+    int categoryId,
+    String category,
     String articleTitle,
     String articleDescription,
     String resolutionDetails,
@@ -45,17 +50,7 @@ public record KnowledgeBaseArticle
 
             while (resultSet.next())
             {
-                int knowledgeBaseId = resultSet.getInt("knowledgeBaseId");
-                int issueId = resultSet.getInt("issueId");
-                String issueTitle = resultSet.getString("issueTitle");
-                String issueDescription = resultSet.getString("issueDescription");
-                String articleTitle = resultSet.getString("articleTitle");
-                String articleDescription = resultSet.getString("articleDescription");
-                String resolutionDetails = resultSet.getString("resolutionDetails");
-                Date dateResolved = resultSet.getDate("dateResolve");
-
-                KnowledgeBaseArticle knowledgeBaseArticle = new KnowledgeBaseArticle(knowledgeBaseId, issueId, issueTitle, issueDescription, articleTitle, articleDescription, resolutionDetails, dateResolved);
-                knowledgeBaseArticles.add(knowledgeBaseArticle);
+                knowledgeBaseArticles.add(readArticle(resultSet));
             }
 
             return knowledgeBaseArticles;
@@ -66,6 +61,38 @@ public record KnowledgeBaseArticle
         }
     }
 
+    /**
+     * Streams all the knowledge base articles from the database, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @return A stream of KnowledgeBaseArticle objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<KnowledgeBaseArticle> streamAllKnowledgeBaseArticles() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT *
+                    FROM [VW_Knowledge_Base];
+                    """,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+
+            return ResultSetStreams.stream(connection, query, KnowledgeBaseArticle::readArticle);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
     /**
      * Retrieves all the knowledge base articles from the database.
      *
@@ -93,17 +120,7 @@ public record KnowledgeBaseArticle
 
             while (resultSet.next())
             {
-                int knowledgeBaseId = resultSet.getInt("knowledgeBaseId");
-                int issueId = resultSet.getInt("issueId");
-                String issueTitle = resultSet.getString("issueTitle");
-                String issueDescription = resultSet.getString("issueDescription");
-                String articleTitle = resultSet.getString("articleTitle");
-                String articleDescription = resultSet.getString("articleDescription");
-                String resolutionDetails = resultSet.getString("resolutionDetails");
-                Date dateResolved = resultSet.getDate("dateResolve");
-
-                KnowledgeBaseArticle knowledgeBaseArticle = new KnowledgeBaseArticle(knowledgeBaseId, issueId, issueTitle, issueDescription, articleTitle, articleDescription, resolutionDetails, dateResolved);
-                knowledgeBaseArticles.add(knowledgeBaseArticle);
+                knowledgeBaseArticles.add(readArticle(resultSet));
             }
 
             return knowledgeBaseArticles;
@@ -114,13 +131,33 @@ public record KnowledgeBaseArticle
         }
     }
 
+    /**
+     * Retrieves all the knowledge base articles from the database relating to each of the specified issues, in one round trip per 512 issues.
+     *
+     * @param _issueIds The IDs of the issues that the knowledge base articles are attached to
+     * @return A map from each issue ID to the list of KnowledgeBaseArticle objects attached to it; issues without knowledge base articles map to an empty list.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Map<Integer, List<KnowledgeBaseArticle>> getAllKnowledgeBaseArticlesByIds(Collection<Integer> _issueIds) throws SQLException
+    {
+        return BatchQueries.groupByIssue(
+                """
+                SELECT *
+                FROM [VW_Knowledge_Base]""",
+                _issueIds,
+                KnowledgeBaseArticle::readArticle,
+                KnowledgeBaseArticle::issueId
+        );
+    }
+
     /**
      * Inserts a knowledge-base article in the database.
      *
      * @param _article The knowledge-base article to be inserted.
+     * @return The ID generated for the inserted knowledge-base article.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertKnowledgeBaseArticle(KnowledgeBaseArticle _article) throws SQLException
+    public static int insertKnowledgeBaseArticle(KnowledgeBaseArticle _article) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -129,7 +166,8 @@ public record KnowledgeBaseArticle
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Knowledge_Base] (issue_id, title, description, resolution_details, date_resolved) VALUES (?,?,?,?,?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setInt(1, _article.issueId());
             query.setString(2, _article.articleTitle());
@@ -137,6 +175,16 @@ public record KnowledgeBaseArticle
             query.setString(4, _article.resolutionDetails());
             query.setDate(5, (java.sql.Date) _article.dateResolved());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int knowledgeBaseId = keys.next() ? keys.getInt(1) : 0;
+
+            var saved = new KnowledgeBaseArticle(knowledgeBaseId, _article.issueId(), _article.issueTitle(), _article.issueDescription(), _article.categoryId(), _article.category(), _article.articleTitle(), _article.articleDescription(), _article.resolutionDetails(), _article.dateResolved());
+            SearchIndex.articleSaved(saved);
+            SimilarityIndex.articleSaved(saved);
+            KnowledgeBaseIndex.articleSaved(saved);
+
+            return knowledgeBaseId;
         }
         finally
         {
@@ -168,10 +216,76 @@ public record KnowledgeBaseArticle
             query.setDate(5, (java.sql.Date) _article.dateResolved());
             query.setInt(6, _article.knowledgeBaseId());
             query.executeUpdate();
+
+            SearchIndex.articleSaved(_article);
+            SimilarityIndex.articleSaved(_article);
+            KnowledgeBaseIndex.articleSaved(_article);
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Records that a knowledge base article was used to resolve an issue. Each issue and article pair is
+     * recorded once, so resolving an issue again with the same article, or repeating the request, does
+     * not count the link again. A new link is counted towards the article's popularity once the current
+     * unit of work has committed.
+     *
+     * @param _knowledgeBaseId The ID of the article used.
+     * @param _issueId The ID of the resolved issue.
+     * @return true if the link is new, false if it was already recorded.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static boolean linkResolvedIssue(int _knowledgeBaseId, int _issueId) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    INSERT INTO [Issue_Knowledge_Base_Link] (issue_id, kb_id)
+                    SELECT ?, ?
+                    WHERE NOT EXISTS (SELECT 1 FROM [Issue_Knowledge_Base_Link] WITH (UPDLOCK, HOLDLOCK) WHERE issue_id = ? AND kb_id = ?);
+                    """
+            );
+            query.setInt(1, _issueId);
+            query.setInt(2, _knowledgeBaseId);
+            query.setInt(3, _issueId);
+            query.setInt(4, _knowledgeBaseId);
+            boolean linked = query.executeUpdate() > 0;
+
+            if (linked)
+            {
+                UnitOfWork.afterCommit(() -> PopularityTracker.recordLink(_knowledgeBaseId));
+            }
+
+            return linked;
         }
         finally
         {
             connection.close();
         }
     }
+
+    /**
+     * Reads the article at the current row of a result set over [VW_Knowledge_Base].
+     */
+    private static KnowledgeBaseArticle readArticle(ResultSet _resultSet) throws SQLException
+    {
+        int knowledgeBaseId = _resultSet.getInt("articleId");
+        int issueId = _resultSet.getInt("issueId");
+        String issueTitle = _resultSet.getString("issueTitle");
+        String issueDescription = _resultSet.getString("issueDescription");
+        int categoryId = _resultSet.getInt("categoryId");
+        String category = _resultSet.getString("category");
+        String articleTitle = _resultSet.getString("articleTitle");
+        String articleDescription = _resultSet.getString("articleDescription");
+        String resolutionDetails = _resultSet.getString("resolutionDetails");
+        Date dateResolved = _resultSet.getTimestamp("dateResolved");
+
+        return new KnowledgeBaseArticle(knowledgeBaseId, issueId, issueTitle, issueDescription, categoryId, category, articleTitle, articleDescription, resolutionDetails, dateResolved);
+    }
 }
\ No newline at end of file
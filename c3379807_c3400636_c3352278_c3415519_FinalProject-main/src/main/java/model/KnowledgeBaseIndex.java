@@ -0,0 +1,311 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-process index of the knowledge base articles by the category of the issue they resolve.
+ *
+ * The articles are read once into an immutable snapshot holding, for each category, the list of its
+ * articles sorted most popular first, then most recently resolved first, so the knowledge base page
+ * filters a category with a map lookup and pages it with a sub-list. The article insert and update
+ * methods and the issue change events write through by atomically swapping in a new snapshot, in which
+ * only the lists of the categories that changed are rebuilt and the others are shared with the previous
+ * snapshot. The popularity scores are replaced periodically by {@link PopularityTracker}, which re-sorts
+ * every category once.
+ */
+public final class KnowledgeBaseIndex implements IssueListener
+{
+    private static final Comparator<KnowledgeBaseArticle> MOST_RECENT_FIRST = Comparator
+            .comparing(KnowledgeBaseArticle::dateResolved, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Comparator.comparingInt(KnowledgeBaseArticle::knowledgeBaseId).reversed());
+
+    private static final double NO_SCORE = 0;
+
+    private static final KnowledgeBaseIndex instance = new KnowledgeBaseIndex();
+
+    static
+    {
+        IssueEvents.register(instance);
+    }
+
+    /**
+     * An immutable copy of the articles, by category name in alphabetical order, by article ID and by
+     * the ID of the issue they were written about, and the popularity scores they are ordered by.
+     */
+    private record Snapshot
+    (
+        Map<String, List<KnowledgeBaseArticle>> byCategory,
+        Map<Integer, KnowledgeBaseArticle> byId,
+        Map<Integer, List<Integer>> byIssue,
+        Map<Integer, Double> scores
+    )
+    {
+    }
+
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private KnowledgeBaseIndex()
+    {
+    }
+
+    /**
+     * Reads all the knowledge base articles from the database and replaces the indexed snapshot.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        var current = snapshot.get();
+        var scores = current == null ? Map.<Integer, Double>of() : current.scores();
+
+        var byCategory = new TreeMap<String, List<KnowledgeBaseArticle>>();
+        var byId = new HashMap<Integer, KnowledgeBaseArticle>();
+        var byIssue = new HashMap<Integer, List<Integer>>();
+
+        for (var article : KnowledgeBaseArticle.getAllKnowledgeBaseArticles())
+        {
+            byCategory.computeIfAbsent(article.category(), category -> new ArrayList<>()).add(article);
+            byId.put(article.knowledgeBaseId(), article);
+            byIssue.computeIfAbsent(article.issueId(), issueId -> new ArrayList<>()).add(article.knowledgeBaseId());
+        }
+
+        byCategory.replaceAll((category, articles) -> sorted(articles, scores));
+        byIssue.replaceAll((issueId, articleIds) -> List.copyOf(articleIds));
+        snapshot.set(new Snapshot(Collections.unmodifiableMap(byCategory), Map.copyOf(byId), Map.copyOf(byIssue), scores));
+    }
+
+    /**
+     * Returns the number of articles in each category.
+     *
+     * @return A map from category name to its number of articles, in alphabetical order of category.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static Map<String, Integer> getCategoryCounts() throws SQLException
+    {
+        var counts = new TreeMap<String, Integer>();
+        snapshot().byCategory().forEach((category, articles) -> counts.put(category, articles.size()));
+        return counts;
+    }
+
+    /**
+     * Returns a single knowledge base article.
+     *
+     * @param _knowledgeBaseId The ID of the article
+     * @return The article, or null if there is no article with that ID.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static KnowledgeBaseArticle getArticle(int _knowledgeBaseId) throws SQLException
+    {
+        return snapshot().byId().get(_knowledgeBaseId);
+    }
+
+    /**
+     * Returns one page of the articles in a category.
+     *
+     * @param _category The name of the category
+     * @param _page The number of the page, starting at 1; a page past the end returns the last page
+     * @param _pageSize The maximum number of articles on a page
+     * @return The page, most popular articles first; it has no articles if the category has none.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static KnowledgeBasePage getPage(String _category, int _page, int _pageSize) throws SQLException
+    {
+        var articles = snapshot().byCategory().getOrDefault(_category, List.of());
+
+        int pageCount = Math.max(1, (articles.size() + _pageSize - 1) / _pageSize);
+        int page = Math.min(Math.max(1, _page), pageCount);
+        int from = (page - 1) * _pageSize;
+
+        return new KnowledgeBasePage(_category, articles.subList(from, Math.min(from + _pageSize, articles.size())), page, pageCount, articles.size());
+    }
+
+    /**
+     * Replaces the popularity scores and re-sorts the articles of every category by them.
+     *
+     * @param _scores The popularity score of each article by ID; articles without a score rank last
+     */
+    static void rank(Map<Integer, Double> _scores)
+    {
+        var scores = Map.copyOf(_scores);
+
+        snapshot.updateAndGet(current ->
+        {
+            if (current == null)
+            {
+                return null;
+            }
+
+            var byCategory = new TreeMap<String, List<KnowledgeBaseArticle>>();
+            current.byCategory().forEach((category, articles) -> byCategory.put(category, sorted(articles, scores)));
+
+            return new Snapshot(Collections.unmodifiableMap(byCategory), current.byId(), current.byIssue(), scores);
+        });
+    }
+
+    /**
+     * Writes an inserted or updated article through to the index once the current unit of work has committed.
+     */
+    static void articleSaved(KnowledgeBaseArticle _article)
+    {
+        UnitOfWork.afterCommit(() ->
+        {
+            var article = _article;
+
+            try
+            {
+                if (article.category() == null)
+                {
+                    // The caller may not know the category of the issue; it is read from the view instead
+                    var issue = Issue.getIssue(article.issueId());
+
+                    if (issue == null)
+                    {
+                        return;
+                    }
+
+                    article = new KnowledgeBaseArticle(article.knowledgeBaseId(), article.issueId(), issue.title(), issue.description(), issue.categoryId(), issue.category(), article.articleTitle(), article.articleDescription(), article.resolutionDetails(), article.dateResolved());
+                }
+            }
+            catch (SQLException e)
+            {
+                e.printStackTrace();
+                return;
+            }
+
+            var saved = article;
+            snapshot.updateAndGet(current -> current == null ? null : with(current, List.of(saved)));
+        });
+    }
+
+    /**
+     * Refreshes the issue title, description and category held with the articles of a saved issue,
+     * moving them to the new category if it has changed.
+     */
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        var current = snapshot.get();
+
+        if (current == null)
+        {
+            return;
+        }
+
+        String category;
+
+        try
+        {
+            category = _issue.category() != null ? _issue.category() : ReferenceData.getCategoryName(_issue.categoryId());
+        }
+        catch (SQLException e)
+        {
+            e.printStackTrace();
+            return;
+        }
+
+        var changed = new ArrayList<KnowledgeBaseArticle>();
+
+        for (int articleId : current.byIssue().getOrDefault(_issue.issueId(), List.of()))
+        {
+            var article = current.byId().get(articleId);
+            var refreshed = new KnowledgeBaseArticle(article.knowledgeBaseId(), article.issueId(), _issue.title(), _issue.description(), _issue.categoryId(), category, article.articleTitle(), article.articleDescription(), article.resolutionDetails(), article.dateResolved());
+
+            if (!refreshed.equals(article))
+            {
+                changed.add(refreshed);
+            }
+        }
+
+        if (!changed.isEmpty())
+        {
+            snapshot.updateAndGet(latest -> latest == null ? null : with(latest, changed));
+        }
+    }
+
+    private static Snapshot snapshot() throws SQLException
+    {
+        var current = snapshot.get();
+
+        if (current == null)
+        {
+            reload();
+            current = snapshot.get();
+        }
+
+        return current;
+    }
+
+    /**
+     * Returns a copy of a snapshot with some articles added or replaced. Only the lists of the categories
+     * the articles leave or join, and of the issues they belong to, are rebuilt.
+     */
+    private static Snapshot with(Snapshot _snapshot, List<KnowledgeBaseArticle> _articles)
+    {
+        var byCategory = new TreeMap<>(_snapshot.byCategory());
+        var byId = new HashMap<>(_snapshot.byId());
+        var byIssue = new HashMap<>(_snapshot.byIssue());
+
+        for (var article : _articles)
+        {
+            var previous = byId.put(article.knowledgeBaseId(), article);
+
+            if (previous != null && previous.issueId() != article.issueId())
+            {
+                var remaining = new ArrayList<>(byIssue.get(previous.issueId()));
+                remaining.remove(Integer.valueOf(previous.knowledgeBaseId()));
+
+                if (remaining.isEmpty())
+                {
+                    byIssue.remove(previous.issueId());
+                }
+                else
+                {
+                    byIssue.put(previous.issueId(), List.copyOf(remaining));
+                }
+            }
+
+            if (previous == null || previous.issueId() != article.issueId())
+            {
+                var articleIds = new ArrayList<>(byIssue.getOrDefault(article.issueId(), List.of()));
+                articleIds.add(article.knowledgeBaseId());
+                byIssue.put(article.issueId(), List.copyOf(articleIds));
+            }
+
+            if (previous != null)
+            {
+                var remaining = new ArrayList<>(byCategory.get(previous.category()));
+                remaining.removeIf(candidate -> candidate.knowledgeBaseId() == previous.knowledgeBaseId());
+
+                if (remaining.isEmpty())
+                {
+                    byCategory.remove(previous.category());
+                }
+                else
+                {
+                    byCategory.put(previous.category(), List.copyOf(remaining));
+                }
+            }
+
+            var articles = new ArrayList<>(byCategory.getOrDefault(article.category(), List.of()));
+            articles.add(article);
+            byCategory.put(article.category(), sorted(articles, _snapshot.scores()));
+        }
+
+        return new Snapshot(Collections.unmodifiableMap(byCategory), Map.copyOf(byId), Map.copyOf(byIssue), _snapshot.scores());
+    }
+
+    private static List<KnowledgeBaseArticle> sorted(List<KnowledgeBaseArticle> _articles, Map<Integer, Double> _scores)
+    {
+        var copy = new ArrayList<>(_articles);
+        copy.sort(Comparator.<KnowledgeBaseArticle>comparingDouble(article -> _scores.getOrDefault(article.knowledgeBaseId(), NO_SCORE)).reversed().thenComparing(MOST_RECENT_FIRST));
+        return List.copyOf(copy);
+    }
+}
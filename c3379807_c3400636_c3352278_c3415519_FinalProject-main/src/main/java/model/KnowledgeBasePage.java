@@ -0,0 +1,32 @@
+package model;
+
+import java.util.List;
+
+/**
+ * Represents one page of the knowledge base articles in a category.
+ *
+ * @param category The category the articles belong to.
+ * @param articles The articles on this page, most recently resolved first.
+ * @param page The number of this page, starting at 1.
+ * @param pageCount The number of pages in the category, at least 1.
+ * @param totalCount The number of articles in the category.
+ */
+public record KnowledgeBasePage
+(
+    String category,
+    List<KnowledgeBaseArticle> articles,
+    int page,
+    int pageCount,
+    int totalCount
+)
+{
+    public boolean hasPrevious()
+    {
+        return page > 1;
+    }
+
+    public boolean hasNext()
+    {
+        return page < pageCount;
+    }
+}
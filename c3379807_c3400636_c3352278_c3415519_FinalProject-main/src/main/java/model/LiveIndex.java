@@ -0,0 +1,193 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Holds an in-memory index that is loaded from the database and then kept up to date from the issue change
+ * events, for {@link SearchIndex}, {@link KeywordIndex} and {@link SimilarityIndex}.
+ *
+ * A reload builds a new index outside the lock while reads keep using the current one, then swaps it in
+ * under the write lock. Every change that arrives during the build is applied to the current index and
+ * also recorded, then replayed on the new index before the swap, since the build may have read the row
+ * before the change committed. The build may equally have read it after, so changes must be idempotent:
+ * applying one to an index that already reflects it must leave the index as it is. Changes that arrive
+ * before the first load starts are dropped, since the load reads the committed state anyway.
+ *
+ * @param <T> The type of the index; its listener methods apply the issue change events to it.
+ */
+final class LiveIndex<T extends IssueListener> implements IssueListener
+{
+    /**
+     * Builds a new index from the database.
+     */
+    @FunctionalInterface
+    interface Loader<T>
+    {
+        T load() throws SQLException;
+    }
+
+    private final Loader<T> loader;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Held for the whole of a reload, so only one build runs at a time.
+     */
+    private final Object reloading = new Object();
+
+    private volatile T current;
+
+    /**
+     * The changes received since the running build started, or null if no build is running.
+     */
+    private List<Consumer<T>> pending;
+
+    LiveIndex(Loader<T> _loader)
+    {
+        loader = _loader;
+    }
+
+    /**
+     * Builds a new index from the database and replaces the current one with it.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    void reload() throws SQLException
+    {
+        synchronized (reloading)
+        {
+            lock.writeLock().lock();
+            try
+            {
+                pending = new ArrayList<>();
+            }
+            finally
+            {
+                lock.writeLock().unlock();
+            }
+
+            T loaded = null;
+
+            try
+            {
+                loaded = loader.load();
+            }
+            catch (RuntimeException e)
+            {
+                if (e.getCause() instanceof SQLException sqlException)
+                {
+                    throw sqlException;
+                }
+                throw e;
+            }
+            finally
+            {
+                lock.writeLock().lock();
+                try
+                {
+                    if (loaded != null)
+                    {
+                        for (var change : pending)
+                        {
+                            change.accept(loaded);
+                        }
+                        current = loaded;
+                    }
+                    pending = null;
+                }
+                finally
+                {
+                    lock.writeLock().unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs a query on the index under the read lock, loading the index first if it has not been loaded yet.
+     *
+     * @param _query The query to run
+     * @return The result of the query.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    <R> R read(Function<T, R> _query) throws SQLException
+    {
+        if (current == null)
+        {
+            synchronized (reloading)
+            {
+                if (current == null)
+                {
+                    reload();
+                }
+            }
+        }
+
+        lock.readLock().lock();
+
+        try
+        {
+            return _query.apply(current);
+        }
+        finally
+        {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a change to the index under the write lock, and records it for the running build, if any.
+     *
+     * @param _change An idempotent change to the index
+     */
+    void write(Consumer<T> _change)
+    {
+        lock.writeLock().lock();
+
+        try
+        {
+            if (current != null)
+            {
+                _change.accept(current);
+            }
+
+            if (pending != null)
+            {
+                pending.add(_change);
+            }
+        }
+        finally
+        {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        write(index -> index.issueSaved(_issue));
+    }
+
+    @Override
+    public void issueAssigned(int _issueId, int _staffId)
+    {
+        write(index -> index.issueAssigned(_issueId, _staffId));
+    }
+
+    @Override
+    public void issueStateChanged(int _issueId, int _stateId)
+    {
+        write(index -> index.issueStateChanged(_issueId, _stateId));
+    }
+
+    @Override
+    public void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        write(index -> index.issueResolved(_issueId, _stateId, _resolutionDetails, _dateResolved));
+    }
+}
@@ -0,0 +1,17 @@
+package model;
+
+import java.util.Date;
+
+/**
+ * Represents an issue that has not been resolved yet, as listed by the statistics pages.
+ */
+public record OpenIssue
+(
+    int issueId,
+    String title,
+    int categoryId,
+    int assignedToId,
+    Date dateReported
+)
+{
+}
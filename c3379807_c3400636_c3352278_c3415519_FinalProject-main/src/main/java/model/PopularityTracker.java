@@ -0,0 +1,125 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts views of knowledge base articles, and links to them from resolved issues, without a database
+ * write per event. A link is recorded when staff resolving an issue name the article that resolved it;
+ * the articles written about an issue are not counted, as they are only written once it is resolved.
+ *
+ * Each article has a pair of {@link LongAdder} counters that page requests add to without contention.
+ * {@link #flush()} writes the counts added since the previous flush to [Knowledge_Base_Popularity] in
+ * one batch; the counters are never reset, so an event recorded while a flush runs is carried to the
+ * next one instead of being lost, and a failed flush is retried in full. {@link #recomputeRanking()}
+ * reads the decayed scores back and hands them to {@link KnowledgeBaseIndex} to order the articles.
+ */
+public final class PopularityTracker
+{
+    private static final double VIEW_WEIGHT = 1;
+    private static final double LINK_WEIGHT = Double.parseDouble(ConfigBean.getSetting("itportal.knowledge-base.popularity.link-weight", "5"));
+    private static final double HALF_LIFE_HOURS = 24 * Double.parseDouble(ConfigBean.getSetting("itportal.knowledge-base.popularity.half-life-days", "30"));
+
+    private static final PopularityTracker instance = new PopularityTracker();
+
+    /**
+     * The views and links of one article since startup, and how many of them have been written.
+     * The flushed totals are only touched by the flush, which holds the tracker's lock.
+     */
+    private static final class Counter
+    {
+        private final LongAdder views = new LongAdder();
+        private final LongAdder links = new LongAdder();
+        private long flushedViews;
+        private long flushedLinks;
+    }
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    private PopularityTracker()
+    {
+    }
+
+    /**
+     * Records that a knowledge base article has been viewed.
+     *
+     * @param _knowledgeBaseId The ID of the article
+     */
+    public static void recordView(int _knowledgeBaseId)
+    {
+        instance.counter(_knowledgeBaseId).views.increment();
+    }
+
+    /**
+     * Records that a knowledge base article was used to resolve an issue.
+     *
+     * @param _knowledgeBaseId The ID of the article
+     */
+    public static void recordLink(int _knowledgeBaseId)
+    {
+        instance.counter(_knowledgeBaseId).links.increment();
+    }
+
+    /**
+     * Writes the views and links recorded since the previous flush to the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL query; the counts are kept for the next flush.
+     */
+    public static void flush() throws SQLException
+    {
+        synchronized (instance)
+        {
+            var changes = new ArrayList<ArticlePopularity>();
+            var flushed = new HashMap<Counter, long[]>();
+
+            instance.counters.forEach((knowledgeBaseId, counter) ->
+            {
+                long views = counter.views.sum();
+                long links = counter.links.sum();
+                long newViews = views - counter.flushedViews;
+                long newLinks = links - counter.flushedLinks;
+
+                if (newViews > 0 || newLinks > 0)
+                {
+                    changes.add(new ArticlePopularity(knowledgeBaseId, newViews, newLinks, newViews * VIEW_WEIGHT + newLinks * LINK_WEIGHT));
+                    flushed.put(counter, new long[] { views, links });
+                }
+            });
+
+            ArticlePopularity.addArticlePopularity(changes, HALF_LIFE_HOURS);
+
+            flushed.forEach((counter, totals) ->
+            {
+                counter.flushedViews = totals[0];
+                counter.flushedLinks = totals[1];
+            });
+        }
+    }
+
+    /**
+     * Flushes the recorded counts, then reorders the knowledge base index by the decayed popularity scores.
+     *
+     * @throws SQLException if there is an error in executing the SQL queries.
+     */
+    public static void recomputeRanking() throws SQLException
+    {
+        flush();
+
+        var scores = new HashMap<Integer, Double>();
+        for (var popularity : ArticlePopularity.getAllArticlePopularity(HALF_LIFE_HOURS))
+        {
+            scores.put(popularity.knowledgeBaseId(), popularity.score());
+        }
+
+        KnowledgeBaseIndex.rank(scores);
+    }
+
+    private Counter counter(int _knowledgeBaseId)
+    {
+        return counters.computeIfAbsent(_knowledgeBaseId, knowledgeBaseId -> new Counter());
+    }
+}
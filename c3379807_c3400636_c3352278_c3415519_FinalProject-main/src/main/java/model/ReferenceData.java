@@ -0,0 +1,248 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToIntFunction;
+
+/**
+ * In-process cache of the reference tables: categories, states, user roles and keywords.
+ *
+ * The tables are small and rarely change, so they are read once into an immutable snapshot which
+ * form pages and views resolve ids against without a database round trip. The insert and update
+ * methods of the matching model classes write through to the cache by atomically swapping in a
+ * new snapshot, once their unit of work has committed.
+ */
+public final class ReferenceData
+{
+    /**
+     * An immutable copy of the reference tables, each keyed and ordered by ID.
+     */
+    private record Snapshot
+    (
+        Map<Integer, Category> categories,
+        Map<Integer, State> states,
+        Map<Integer, UserRole> userRoles,
+        Map<Integer, Keyword> keywords
+    )
+    {
+    }
+
+    private static final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    private ReferenceData()
+    {
+    }
+
+    /**
+     * Reads all the reference tables from the database and replaces the cached snapshot.
+     *
+     * @throws SQLException if there is an error in executing the SQL queries.
+     */
+    public static void reload() throws SQLException
+    {
+        snapshot.set(new Snapshot
+        (
+            index(Category.getAllCategories(), Category::categoryId),
+            index(State.getAllStates(), State::stateId),
+            index(UserRole.getAllUserRoles(), UserRole::roleId),
+            index(Keyword.getAllKeywords(), Keyword::keywordId)
+        ));
+    }
+
+    /**
+     * Returns all the categories.
+     *
+     * @return An unmodifiable list of categories ordered by ID.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static List<Category> getAllCategories() throws SQLException
+    {
+        return List.copyOf(snapshot().categories().values());
+    }
+
+    /**
+     * Returns all the issue states.
+     *
+     * @return An unmodifiable list of states ordered by ID.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static List<State> getAllStates() throws SQLException
+    {
+        return List.copyOf(snapshot().states().values());
+    }
+
+    /**
+     * Returns all the user roles.
+     *
+     * @return An unmodifiable list of user roles ordered by ID.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static List<UserRole> getAllUserRoles() throws SQLException
+    {
+        return List.copyOf(snapshot().userRoles().values());
+    }
+
+    /**
+     * Returns all the keywords.
+     *
+     * @return An unmodifiable list of keywords ordered by ID.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static List<Keyword> getAllKeywords() throws SQLException
+    {
+        return List.copyOf(snapshot().keywords().values());
+    }
+
+    /**
+     * Resolves a category ID to its name.
+     *
+     * @param _categoryId The ID of the category
+     * @return The name of the category, or null if there is no such category.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static String getCategoryName(int _categoryId) throws SQLException
+    {
+        var category = snapshot().categories().get(_categoryId);
+        return category == null ? null : category.category();
+    }
+
+    /**
+     * Resolves a state ID to its name.
+     *
+     * @param _stateId The ID of the state
+     * @return The name of the state, or null if there is no such state.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static String getStateName(int _stateId) throws SQLException
+    {
+        var state = snapshot().states().get(_stateId);
+        return state == null ? null : state.state();
+    }
+
+    /**
+     * Resolves a state name to its ID, ignoring case.
+     *
+     * @param _stateName The name of the state
+     * @return The ID of the state, or null if there is no such state.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static Integer getStateId(String _stateName) throws SQLException
+    {
+        for (var state : snapshot().states().values())
+        {
+            if (state.state().equalsIgnoreCase(_stateName))
+            {
+                return state.stateId();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Resolves a role ID to its name.
+     *
+     * @param _roleId The ID of the role
+     * @return The name of the role, or null if there is no such role.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static String getRoleName(int _roleId) throws SQLException
+    {
+        var role = snapshot().userRoles().get(_roleId);
+        return role == null ? null : role.role();
+    }
+
+    /**
+     * Resolves a keyword ID to its name.
+     *
+     * @param _keywordId The ID of the keyword
+     * @return The name of the keyword, or null if there is no such keyword.
+     * @throws SQLException if the cache has not been loaded yet and loading it fails.
+     */
+    public static String getKeywordName(int _keywordId) throws SQLException
+    {
+        var keyword = snapshot().keywords().get(_keywordId);
+        return keyword == null ? null : keyword.keyword();
+    }
+
+    /**
+     * Writes an inserted or updated row through to the cache once the current unit of work has committed,
+     * so a transaction that rolls back leaves the cache unchanged.
+     */
+    static void putCategory(Category _category)
+    {
+        UnitOfWork.afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : new Snapshot(with(current.categories(), _category.categoryId(), _category), current.states(), current.userRoles(), current.keywords())));
+    }
+
+    /**
+     * See {@link #putCategory(Category)}.
+     */
+    static void putState(State _state)
+    {
+        UnitOfWork.afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : new Snapshot(current.categories(), with(current.states(), _state.stateId(), _state), current.userRoles(), current.keywords())));
+    }
+
+    /**
+     * See {@link #putCategory(Category)}.
+     */
+    static void putUserRole(UserRole _userRole)
+    {
+        UnitOfWork.afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : new Snapshot(current.categories(), current.states(), with(current.userRoles(), _userRole.roleId(), _userRole), current.keywords())));
+    }
+
+    /**
+     * See {@link #putCategory(Category)}.
+     */
+    static void putKeyword(Keyword _keyword)
+    {
+        UnitOfWork.afterCommit(() -> snapshot.updateAndGet(current -> current == null ? null : new Snapshot(current.categories(), current.states(), current.userRoles(), with(current.keywords(), _keyword.keywordId(), _keyword))));
+    }
+
+    /**
+     * Returns the cached snapshot, loading it on first use if it was not loaded at startup.
+     */
+    private static Snapshot snapshot() throws SQLException
+    {
+        var current = snapshot.get();
+
+        if (current != null)
+        {
+            return current;
+        }
+
+        synchronized (ReferenceData.class)
+        {
+            if (snapshot.get() == null)
+            {
+                reload();
+            }
+            return snapshot.get();
+        }
+    }
+
+    private static <T> Map<Integer, T> index(List<T> _rows, ToIntFunction<T> _idOf)
+    {
+        var indexed = new LinkedHashMap<Integer, T>();
+
+        for (T row : _rows)
+        {
+            indexed.put(_idOf.applyAsInt(row), row);
+        }
+
+        return Collections.unmodifiableMap(indexed);
+    }
+
+    /**
+     * Copies a map with one entry added or replaced, keeping the other entries in order.
+     */
+    private static <T> Map<Integer, T> with(Map<Integer, T> _map, int _id, T _row)
+    {
+        var copy = new LinkedHashMap<>(_map);
+        copy.put(_id, _row);
+        return Collections.unmodifiableMap(copy);
+    }
+}
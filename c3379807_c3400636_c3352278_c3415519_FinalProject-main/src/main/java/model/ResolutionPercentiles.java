@@ -0,0 +1,35 @@
+package model;
+
+/**
+ * Represents the resolution time percentiles of one category or staff member over a window of days.
+ *
+ * @param name The category name or staff member full name
+ * @param resolvedCount The number of issues resolved in the window
+ * @param p50Hours The median number of hours to resolve an issue
+ * @param p90Hours The number of hours within which 90% of the issues were resolved
+ * @param p99Hours The number of hours within which 99% of the issues were resolved
+ */
+public record ResolutionPercentiles
+(
+    String name,
+    long resolvedCount,
+    double p50Hours,
+    double p90Hours,
+    double p99Hours
+)
+{
+    static ResolutionPercentiles of(String _name, ResolutionSketch _sketch)
+    {
+        return of(_name, _sketch.getCount(), _sketch.getQuantile(0.5), _sketch.getQuantile(0.9), _sketch.getQuantile(0.99));
+    }
+
+    static ResolutionPercentiles of(String _name, long _resolvedCount, double _p50Minutes, double _p90Minutes, double _p99Minutes)
+    {
+        return new ResolutionPercentiles(_name, _resolvedCount, hours(_p50Minutes), hours(_p90Minutes), hours(_p99Minutes));
+    }
+
+    private static double hours(double _minutes)
+    {
+        return Math.round(_minutes / 60 * 10) / 10.0;
+    }
+}
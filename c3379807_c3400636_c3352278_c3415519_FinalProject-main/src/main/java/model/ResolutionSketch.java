@@ -0,0 +1,156 @@
+package model;
+
+/**
+ * A mergeable quantile sketch of resolution times, in minutes.
+ *
+ * Values are counted in logarithmic buckets whose bounds grow by a constant ratio, so every quantile
+ * is answered within {@link #RELATIVE_ACCURACY} of the true value whatever the range of the data,
+ * and a sketch never holds more than a few hundred counters. Two sketches are merged by adding
+ * their bucket counts, and a value is removed by adding it with a negative count, which lets
+ * {@link IssueStatistics} keep one sketch per day and category or staff member and roll any window
+ * of days up on demand.
+ */
+public final class ResolutionSketch
+{
+    /**
+     * The relative error of the quantiles returned by the sketch.
+     */
+    public static final double RELATIVE_ACCURACY = 0.01;
+
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+
+    /**
+     * Count of values below one minute, which have no logarithmic bucket.
+     */
+    private long zeroCount;
+
+    /**
+     * Bucket counts; counts[i] is the count of bucket (offset + i).
+     */
+    private long[] counts = new long[0];
+    private int offset;
+    private long count;
+
+    /**
+     * Adds a resolution time to the sketch, or removes one previously added when _count is negative.
+     *
+     * @param _minutes The resolution time, in minutes
+     * @param _count The number of times to add the value
+     */
+    void add(double _minutes, long _count)
+    {
+        if (_minutes < 1)
+        {
+            zeroCount += _count;
+        }
+        else
+        {
+            int index = (int) Math.ceil(Math.log(_minutes) / LOG_GAMMA);
+            grow(index, index);
+            counts[index - offset] += _count;
+        }
+
+        count += _count;
+    }
+
+    /**
+     * Adds every value of another sketch to this one.
+     *
+     * @param _other The sketch to merge into this one
+     */
+    void merge(ResolutionSketch _other)
+    {
+        if (_other.counts.length > 0)
+        {
+            grow(_other.offset, _other.offset + _other.counts.length - 1);
+
+            for (int i = 0; i < _other.counts.length; i++)
+            {
+                counts[_other.offset + i - offset] += _other.counts[i];
+            }
+        }
+
+        zeroCount += _other.zeroCount;
+        count += _other.count;
+    }
+
+    /**
+     * Returns the number of values in the sketch.
+     *
+     * @return The number of values.
+     */
+    public long getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Returns the value at a quantile of the sketch.
+     *
+     * @param _quantile The quantile, between 0 and 1
+     * @return The resolution time at that quantile in minutes, or 0 if the sketch is empty.
+     */
+    public double getQuantile(double _quantile)
+    {
+        if (count <= 0)
+        {
+            return 0;
+        }
+
+        long rank = (long) Math.floor(_quantile * (count - 1));
+        long seen = zeroCount;
+
+        if (rank < seen)
+        {
+            return 0;
+        }
+
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+
+            if (rank < seen)
+            {
+                // The value in the middle of the bucket, in relative terms
+                return 2 * Math.pow(GAMMA, offset + i) / (GAMMA + 1);
+            }
+        }
+
+        return 2 * Math.pow(GAMMA, offset + counts.length - 1) / (GAMMA + 1);
+    }
+
+    /**
+     * Returns whether the sketch holds no values, so it can be dropped.
+     */
+    boolean isEmpty()
+    {
+        return count == 0;
+    }
+
+    /**
+     * Makes room for the buckets from _low to _high.
+     */
+    private void grow(int _low, int _high)
+    {
+        if (counts.length == 0)
+        {
+            offset = _low;
+            counts = new long[_high - _low + 1];
+            return;
+        }
+
+        int low = Math.min(_low, offset);
+        int high = Math.max(_high, offset + counts.length - 1);
+
+        if (low == offset && high == offset + counts.length - 1)
+        {
+            return;
+        }
+
+        var grown = new long[high - low + 1];
+        System.arraycopy(counts, 0, grown, offset - low, counts.length);
+        counts = grown;
+        offset = low;
+    }
+}
@@ -0,0 +1,95 @@
+package model;
+
+import java.sql.*;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Adapts a JDBC result set to a lazily evaluated Stream, so large scans can be processed
+ * row by row in constant memory instead of being materialised into a list first.
+ */
+final class ResultSetStreams
+{
+    /**
+     * Number of rows the driver is asked to fetch per round trip while streaming.
+     */
+    static final int FETCH_SIZE = 500;
+
+    /**
+     * Maps the current row of a result set to an object.
+     */
+    @FunctionalInterface
+    interface RowMapper<T>
+    {
+        T map(ResultSet _resultSet) throws SQLException;
+    }
+
+    private ResultSetStreams()
+    {
+    }
+
+    /**
+     * Executes the query and streams its rows. The statement and the connection are owned by the
+     * returned stream and are closed when the stream is closed, so callers must use try-with-resources.
+     * SQL errors raised while iterating are rethrown as RuntimeExceptions. If the query fails to execute
+     * the caller remains responsible for closing the connection.
+     *
+     * @param _connection The connection that the statement was prepared on
+     * @param _statement The prepared query, with its parameters already bound
+     * @param _mapper Maps each row to an object
+     * @return A sequential stream over the rows of the query.
+     * @throws SQLException if the query cannot be executed.
+     */
+    static <T> Stream<T> stream(Connection _connection, PreparedStatement _statement, RowMapper<T> _mapper) throws SQLException
+    {
+        _statement.setFetchSize(FETCH_SIZE);
+        var resultSet = _statement.executeQuery();
+
+        var spliterator = new Spliterators.AbstractSpliterator<T>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL)
+        {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> _action)
+            {
+                try
+                {
+                    if (!resultSet.next())
+                    {
+                        return false;
+                    }
+
+                    _action.accept(_mapper.map(resultSet));
+                    return true;
+                }
+                catch (SQLException e)
+                {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+
+        return StreamSupport.stream(spliterator, false).onClose(() -> close(resultSet, _statement, _connection));
+    }
+
+    private static void close(ResultSet _resultSet, Statement _statement, Connection _connection)
+    {
+        try
+        {
+            try
+            {
+                _resultSet.close();
+                _statement.close();
+            }
+            finally
+            {
+                _connection.close();
+            }
+        }
+        catch (SQLException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * An in-memory inverted index over the text of issues (title, description and resolution details) and
+ * knowledge base articles (title, description and resolution details), ranked with BM25.
+ *
+ * Text is split into terms by {@link TextAnalyzer}; title terms are counted twice so that matches in a
+ * title rank above matches in a description. The index is seeded by {@link #reload()}, then kept up to
+ * date from the issue change events and from the article insert and update methods, so searching never
+ * scans the TEXT columns in the database. Loading, locking and catching up on changes made during a load
+ * are left to {@link LiveIndex}.
+ */
+public final class SearchIndex implements IssueListener
+{
+    /**
+     * The type of a search result for an issue.
+     */
+    public static final String ISSUE = "issue";
+
+    /**
+     * The type of a search result for a knowledge base article.
+     */
+    public static final String ARTICLE = "article";
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int TITLE_BOOST = 2;
+
+    private static final LiveIndex<SearchIndex> index = new LiveIndex<>(SearchIndex::load);
+
+    static
+    {
+        IssueEvents.register(index);
+    }
+
+    /**
+     * An indexed issue or article. The text fields are kept so a single field can be replaced later.
+     */
+    private record Document
+    (
+        int documentId,
+        String type,
+        int id,
+        int issueId,
+        String title,
+        String description,
+        String resolutionDetails,
+        Map<String, Integer> termFrequencies,
+        int length
+    )
+    {
+    }
+
+    private final Map<String, Integer> documentIds = new HashMap<>();
+    private final Map<Integer, Document> documents = new HashMap<>();
+
+    /**
+     * For each term, the documents that contain it and how many times.
+     */
+    private final Map<String, Map<Integer, Integer>> postings = new HashMap<>();
+
+    private long totalLength;
+    private int nextDocumentId;
+
+    SearchIndex()
+    {
+    }
+
+    /**
+     * Rebuilds the index from every issue and knowledge base article in the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        index.reload();
+    }
+
+    private static SearchIndex load() throws SQLException
+    {
+        var loaded = new SearchIndex();
+
+        try (var issues = Issue.streamAllIssues(IssueFilter.none()))
+        {
+            issues.forEach(loaded::put);
+        }
+
+        try (var articles = KnowledgeBaseArticle.streamAllKnowledgeBaseArticles())
+        {
+            articles.forEach(loaded::put);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Searches the issues and knowledge base articles for the terms of a query.
+     *
+     * @param _query The text to search for
+     * @param _type {@link #ISSUE} or {@link #ARTICLE} to search only that type, or null to search both
+     * @param _limit The maximum number of results
+     * @return The best matching documents, best first.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static List<SearchResult> search(String _query, String _type, int _limit) throws SQLException
+    {
+        var terms = new LinkedHashSet<>(TextAnalyzer.terms(_query));
+
+        if (terms.isEmpty() || _limit <= 0)
+        {
+            return List.of();
+        }
+
+        return index.read(search -> search.rank(terms, _type, _limit));
+    }
+
+    /**
+     * Indexes a knowledge base article once the current unit of work has committed.
+     */
+    static void articleSaved(KnowledgeBaseArticle _article)
+    {
+        UnitOfWork.afterCommit(() -> index.write(search -> search.put(_article)));
+    }
+
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        put(_issue);
+    }
+
+    @Override
+    public void issueResolved(int _issueId, int _stateId, String _resolutionDetails, Date _dateResolved)
+    {
+        var documentId = documentIds.get(ISSUE + ":" + _issueId);
+
+        if (documentId != null)
+        {
+            var document = documents.get(documentId);
+            put(ISSUE, _issueId, _issueId, document.title(), document.description(), _resolutionDetails);
+        }
+    }
+
+    private void put(Issue _issue)
+    {
+        put(ISSUE, _issue.issueId(), _issue.issueId(), _issue.title(), _issue.description(), _issue.resolutionDetails());
+    }
+
+    private void put(KnowledgeBaseArticle _article)
+    {
+        put(ARTICLE, _article.knowledgeBaseId(), _article.issueId(), _article.articleTitle(), _article.articleDescription(), _article.resolutionDetails());
+    }
+
+    /**
+     * Adds a document to the index, replacing the previous version of it.
+     */
+    void put(String _type, int _id, int _issueId, String _title, String _description, String _resolutionDetails)
+    {
+        var key = _type + ":" + _id;
+        var previousId = documentIds.get(key);
+
+        if (previousId != null)
+        {
+            remove(documents.get(previousId));
+        }
+
+        var termFrequencies = new HashMap<String, Integer>();
+        for (var term : TextAnalyzer.terms(_title))
+        {
+            termFrequencies.merge(term, TITLE_BOOST, Integer::sum);
+        }
+        for (var term : TextAnalyzer.terms(_description))
+        {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+        for (var term : TextAnalyzer.terms(_resolutionDetails))
+        {
+            termFrequencies.merge(term, 1, Integer::sum);
+        }
+
+        int length = 0;
+        for (int frequency : termFrequencies.values())
+        {
+            length += frequency;
+        }
+
+        int documentId = previousId != null ? previousId : nextDocumentId++;
+        var document = new Document(documentId, _type, _id, _issueId, _title, _description, _resolutionDetails, termFrequencies, length);
+
+        documentIds.put(key, documentId);
+        documents.put(documentId, document);
+        totalLength += length;
+
+        for (var entry : termFrequencies.entrySet())
+        {
+            postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(documentId, entry.getValue());
+        }
+    }
+
+    private void remove(Document _document)
+    {
+        for (var term : _document.termFrequencies().keySet())
+        {
+            var documentsOfTerm = postings.get(term);
+            documentsOfTerm.remove(_document.documentId());
+
+            if (documentsOfTerm.isEmpty())
+            {
+                postings.remove(term);
+            }
+        }
+
+        documents.remove(_document.documentId());
+        totalLength -= _document.length();
+    }
+
+    /**
+     * Scores every document containing a query term with BM25 and keeps the best ones in a bounded heap.
+     */
+    List<SearchResult> rank(Iterable<String> _terms, String _type, int _limit)
+    {
+        int documentCount = documents.size();
+
+        if (documentCount == 0)
+        {
+            return List.of();
+        }
+
+        double averageLength = (double) totalLength / documentCount;
+        var scores = new HashMap<Integer, Double>();
+
+        for (var term : _terms)
+        {
+            var documentsOfTerm = postings.get(term);
+
+            if (documentsOfTerm == null)
+            {
+                continue;
+            }
+
+            int frequency = documentsOfTerm.size();
+            double idf = Math.log(1 + (documentCount - frequency + 0.5) / (frequency + 0.5));
+
+            for (var entry : documentsOfTerm.entrySet())
+            {
+                var document = documents.get(entry.getKey());
+
+                if (_type != null && !_type.equals(document.type()))
+                {
+                    continue;
+                }
+
+                int termFrequency = entry.getValue();
+                double norm = K1 * (1 - B + B * document.length() / averageLength);
+                scores.merge(entry.getKey(), idf * termFrequency * (K1 + 1) / (termFrequency + norm), Double::sum);
+            }
+        }
+
+        var best = new PriorityQueue<Map.Entry<Integer, Double>>(_limit + 1, Map.Entry.comparingByValue());
+        for (var entry : scores.entrySet())
+        {
+            best.add(entry);
+
+            if (best.size() > _limit)
+            {
+                best.poll();
+            }
+        }
+
+        var results = new ArrayList<SearchResult>(best.size());
+        for (var entry : best)
+        {
+            var document = documents.get(entry.getKey());
+            results.add(new SearchResult(document.type(), document.id(), document.issueId(), document.title(), entry.getValue()));
+        }
+
+        results.sort(Comparator.comparingDouble(SearchResult::score).reversed());
+        return results;
+    }
+}
@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Represents an issue or knowledge base article matching a search.
+ *
+ * @param type {@link SearchIndex#ISSUE} or {@link SearchIndex#ARTICLE}
+ * @param id The ID of the issue or article
+ * @param issueId The ID of the issue, or of the issue the article was written from
+ * @param title The title of the issue or article
+ * @param score The BM25 relevance score; higher is more relevant
+ */
+public record SearchResult
+(
+    String type,
+    int id,
+    int issueId,
+    String title,
+    double score
+)
+{
+}
@@ -0,0 +1,296 @@
+package model;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Finds issues and knowledge base articles whose text is nearly the same as a new issue, so the new
+ * issue form can suggest them before a duplicate is reported.
+ *
+ * Each document is reduced to the set of its terms and pairs of adjacent terms, and summarised by a
+ * MinHash signature: for each of {@link #HASHES} hash functions, the smallest hash of any element of
+ * the set. Two signatures agree in a position with a probability equal to the Jaccard similarity of
+ * the sets. The signatures are split into {@link #BANDS} bands that are hashed into buckets (locality
+ * sensitive hashing), so only documents sharing at least one whole band with the query are compared.
+ * A document with similarity s shares a band with probability 1 - (1 - s^ROWS)^BANDS: with 64 bands of
+ * 2 rows that is about 93% at {@link #MIN_SIMILARITY} (0.2) and over 99% from 0.3, at the cost of also
+ * comparing many dissimilar candidates, which is cheap next to missing a duplicate.
+ *
+ * The signatures are rebuilt from the database without blocking lookups by {@link LiveIndex}, which also keeps
+ * them current from the issue events.
+ */
+public final class SimilarityIndex implements IssueListener
+{
+    private static final int HASHES = 128;
+    private static final int BANDS = 64;
+    private static final int ROWS = HASHES / BANDS;
+
+    /**
+     * The lowest estimated similarity that is worth suggesting.
+     */
+    private static final double MIN_SIMILARITY = 0.2;
+
+    private static final long[] MULTIPLIERS = new long[HASHES];
+    private static final long[] INCREMENTS = new long[HASHES];
+
+    static
+    {
+        // A fixed seed keeps signatures comparable across restarts
+        var random = new Random(0x5EED);
+
+        for (int i = 0; i < HASHES; i++)
+        {
+            MULTIPLIERS[i] = random.nextLong() | 1;
+            INCREMENTS[i] = random.nextLong();
+        }
+    }
+
+    private static final LiveIndex<SimilarityIndex> index = new LiveIndex<>(SimilarityIndex::load);
+
+    static
+    {
+        IssueEvents.register(index);
+    }
+
+    /**
+     * An indexed issue or article and its signature.
+     */
+    private record Document(String type, int id, int issueId, String title, int[] signature)
+    {
+    }
+
+    private final Map<String, Document> documents = new HashMap<>();
+
+    /**
+     * For each band, the documents in each bucket, by the hash of their signature values in that band.
+     */
+    private final List<Map<Long, Set<String>>> buckets = new ArrayList<>(BANDS);
+
+    SimilarityIndex()
+    {
+        for (int band = 0; band < BANDS; band++)
+        {
+            buckets.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Rebuilds the index from every issue and knowledge base article in the database.
+     *
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static void reload() throws SQLException
+    {
+        index.reload();
+    }
+
+    private static SimilarityIndex load() throws SQLException
+    {
+        var loaded = new SimilarityIndex();
+
+        try (var issues = Issue.streamAllIssues(IssueFilter.none()))
+        {
+            issues.forEach(loaded::put);
+        }
+
+        try (var articles = KnowledgeBaseArticle.streamAllKnowledgeBaseArticles())
+        {
+            articles.forEach(loaded::put);
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Finds the issues and articles most similar to the text of a new issue.
+     *
+     * @param _text The title and description of the new issue
+     * @param _limit The maximum number of suggestions
+     * @return The similar documents, most similar first; the score is the estimated Jaccard similarity.
+     * @throws SQLException if the index has not been loaded yet and loading it fails.
+     */
+    public static List<SearchResult> findSimilar(String _text, int _limit) throws SQLException
+    {
+        var signature = signature(_text);
+
+        if (signature == null || _limit <= 0)
+        {
+            return List.of();
+        }
+
+        return index.read(similarity -> similarity.similar(signature, _limit));
+    }
+
+    /**
+     * Indexes a knowledge base article once the current unit of work has committed.
+     */
+    static void articleSaved(KnowledgeBaseArticle _article)
+    {
+        UnitOfWork.afterCommit(() -> index.write(similarity -> similarity.put(_article)));
+    }
+
+    @Override
+    public void issueSaved(Issue _issue)
+    {
+        put(_issue);
+    }
+
+    private void put(Issue _issue)
+    {
+        put(SearchIndex.ISSUE, _issue.issueId(), _issue.issueId(), _issue.title(), text(_issue.title(), _issue.description()));
+    }
+
+    private void put(KnowledgeBaseArticle _article)
+    {
+        put(SearchIndex.ARTICLE, _article.knowledgeBaseId(), _article.issueId(), _article.articleTitle(), text(_article.articleTitle(), _article.articleDescription()));
+    }
+
+    /**
+     * Adds a document to the index, replacing the previous version of it.
+     */
+    void put(String _type, int _id, int _issueId, String _title, String _text)
+    {
+        var key = _type + ":" + _id;
+        var previous = documents.remove(key);
+
+        if (previous != null)
+        {
+            for (int band = 0; band < BANDS; band++)
+            {
+                var bucketKey = bandHash(previous.signature(), band);
+                var bucket = buckets.get(band).get(bucketKey);
+                bucket.remove(key);
+
+                if (bucket.isEmpty())
+                {
+                    buckets.get(band).remove(bucketKey);
+                }
+            }
+        }
+
+        var signature = signature(_text);
+
+        if (signature == null)
+        {
+            return;
+        }
+
+        documents.put(key, new Document(_type, _id, _issueId, _title, signature));
+
+        for (int band = 0; band < BANDS; band++)
+        {
+            buckets.get(band).computeIfAbsent(bandHash(signature, band), bucketKey -> new HashSet<>()).add(key);
+        }
+    }
+
+    List<SearchResult> similar(int[] _signature, int _limit)
+    {
+        var candidates = new HashSet<String>();
+
+        for (int band = 0; band < BANDS; band++)
+        {
+            var bucket = buckets.get(band).get(bandHash(_signature, band));
+
+            if (bucket != null)
+            {
+                candidates.addAll(bucket);
+            }
+        }
+
+        var results = new ArrayList<SearchResult>();
+
+        for (var key : candidates)
+        {
+            var document = documents.get(key);
+            int agreeing = 0;
+
+            for (int i = 0; i < HASHES; i++)
+            {
+                if (document.signature()[i] == _signature[i])
+                {
+                    agreeing++;
+                }
+            }
+
+            double similarity = (double) agreeing / HASHES;
+
+            if (similarity >= MIN_SIMILARITY)
+            {
+                results.add(new SearchResult(document.type(), document.id(), document.issueId(), document.title(), similarity));
+            }
+        }
+
+        results.sort(Comparator.comparingDouble(SearchResult::score).reversed());
+        return results.size() > _limit ? new ArrayList<>(results.subList(0, _limit)) : results;
+    }
+
+    /**
+     * Computes the MinHash signature of the terms and adjacent term pairs of a text.
+     *
+     * @return The signature, or null if the text has no terms.
+     */
+    static int[] signature(String _text)
+    {
+        var terms = TextAnalyzer.terms(_text);
+
+        if (terms.isEmpty())
+        {
+            return null;
+        }
+
+        var shingles = new HashSet<Integer>();
+        for (int i = 0; i < terms.size(); i++)
+        {
+            shingles.add(terms.get(i).hashCode());
+
+            if (i + 1 < terms.size())
+            {
+                shingles.add((terms.get(i) + " " + terms.get(i + 1)).hashCode());
+            }
+        }
+
+        var signature = new int[HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        for (int shingle : shingles)
+        {
+            for (int i = 0; i < HASHES; i++)
+            {
+                // Multiply-shift hashing: the high 31 bits of a random affine function of the shingle
+                int hash = (int) ((MULTIPLIERS[i] * shingle + INCREMENTS[i]) >>> 33);
+
+                if (hash < signature[i])
+                {
+                    signature[i] = hash;
+                }
+            }
+        }
+
+        return signature;
+    }
+
+    private static String text(String _title, String _description)
+    {
+        return (_title == null ? "" : _title) + " " + (_description == null ? "" : _description);
+    }
+
+    private static long bandHash(int[] _signature, int _band)
+    {
+        long hash = _band;
+
+        for (int i = _band * ROWS; i < (_band + 1) * ROWS; i++)
+        {
+            hash = hash * 31 + _signature[i];
+        }
+
+        return hash;
+    }
+}
@@ -0,0 +1,19 @@
+package model;
+
+/**
+ * Represents how many of the issues in a category were resolved within the target resolution time.
+ *
+ * @param category The category name
+ * @param resolvedCount The number of issues resolved in the period
+ * @param withinTargetCount The number of those issues resolved within the target time
+ * @param compliance The ratio of issues resolved within the target time
+ */
+public record SlaCompliance
+(
+    String category,
+    long resolvedCount,
+    long withinTargetCount,
+    double compliance
+)
+{
+}
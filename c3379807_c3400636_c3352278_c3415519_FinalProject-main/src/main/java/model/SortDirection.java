@@ -0,0 +1,42 @@
+package model;
+
+/**
+ * Represents the direction that a paginated listing is sorted in.
+ */
+public enum SortDirection
+{
+    ASCENDING,
+    DESCENDING;
+
+    /**
+     * Returns the direction opposite to this one.
+     *
+     * @return DESCENDING for ASCENDING and vice versa.
+     */
+    public SortDirection reverse()
+    {
+        return this == ASCENDING ? DESCENDING : ASCENDING;
+    }
+
+    /**
+     * Parses a direction from a request parameter such as "asc" or "desc".
+     *
+     * @param _value The value to parse, may be null.
+     * @param _defaultDirection The direction to use when the value is missing or not recognised.
+     * @return The parsed direction.
+     */
+    public static SortDirection parse(String _value, SortDirection _defaultDirection)
+    {
+        if (_value == null)
+        {
+            return _defaultDirection;
+        }
+
+        return switch (_value.trim().toLowerCase())
+        {
+            case "asc", "ascending" -> ASCENDING;
+            case "desc", "descending" -> DESCENDING;
+            default -> _defaultDirection;
+        };
+    }
+}
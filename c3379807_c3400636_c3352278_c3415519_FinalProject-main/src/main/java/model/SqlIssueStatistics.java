@@ -0,0 +1,168 @@
+package model;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes the issue statistics with set-based SQL instead of in memory: GROUP BY queries for the
+ * counts, the Issue_Stats_Daily rollup for resolution times, a TOP query for the oldest open issues and
+ * windowed queries over [VW_Issue] for the resolution percentiles and SLA compliance.
+ * This is the alternative to {@link IssueStatistics} for deployments that run several application
+ * instances against one database, where live counters in one instance would miss the others' changes.
+ */
+public final class SqlIssueStatistics
+{
+    private static final int RESOLUTION_WINDOW_DAYS = 30;
+    private static final int LONGEST_UNRESOLVED_COUNT = 5;
+
+    private SqlIssueStatistics()
+    {
+    }
+
+    /**
+     * Queries the current statistics from the database.
+     *
+     * @return A snapshot of the statistics.
+     * @throws SQLException if there is an error in executing the SQL queries.
+     */
+    public static StatisticsSnapshot getSnapshot() throws SQLException
+    {
+        return new StatisticsSnapshot
+        (
+            Issue.getIssueCountsByCategory(),
+            Issue.getIssueCountsByState(),
+            Issue.getIssueCountsByAssignee(),
+            IssueStatsDaily.getAverageResolutionDays(LocalDate.now(IssueStatistics.getZone()).minusDays(RESOLUTION_WINDOW_DAYS)),
+            Issue.getLongestUnresolvedIssues(LONGEST_UNRESOLVED_COUNT)
+        );
+    }
+
+    /**
+     * Queries the resolution time percentiles of each category, for the issues resolved in a window of days.
+     *
+     * @param _from The first day of the window
+     * @param _to The last day of the window, inclusive
+     * @return The percentiles of each category with resolved issues in the window, by category name.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<ResolutionPercentiles> getResolutionPercentilesByCategory(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        return getResolutionPercentiles("categoryId", "category", _from, _to);
+    }
+
+    /**
+     * Queries the resolution time percentiles of each staff member, for the issues resolved in a window of days.
+     *
+     * @param _from The first day of the window
+     * @param _to The last day of the window, inclusive
+     * @return The percentiles of each staff member with resolved issues in the window, by full name.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<ResolutionPercentiles> getResolutionPercentilesByStaff(LocalDate _from, LocalDate _to) throws SQLException
+    {
+        return getResolutionPercentiles("assignedToId", "assignedToFullName", _from, _to);
+    }
+
+    /**
+     * Queries the share of the issues resolved in a window of days that were resolved within a target
+     * time, per category.
+     *
+     * @param _targetHours The target time to resolve an issue, in hours
+     * @param _from The first day of the window
+     * @param _to The last day of the window, inclusive
+     * @return The compliance of each category with issues resolved in the window, by category name.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<SlaCompliance> getSlaCompliance(int _targetHours, LocalDate _from, LocalDate _to) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT category, COUNT(*) AS resolvedCount,
+                           SUM(CASE WHEN DATEDIFF(minute, dateReported, dateResolved) <= ? THEN 1 ELSE 0 END) AS withinTargetCount
+                    FROM [VW_Issue]
+                    WHERE stateId = ? AND dateReported IS NOT NULL AND dateResolved >= ? AND dateResolved < ?
+                    GROUP BY categoryId, category
+                    ORDER BY category;
+                    """
+            );
+            query.setLong(1, _targetHours * 60L);
+            query.setInt(2, State.RESOLVED);
+            query.setTimestamp(3, Timestamp.valueOf(_from.atStartOfDay()));
+            query.setTimestamp(4, Timestamp.valueOf(_to.plusDays(1).atStartOfDay()));
+
+            var resultSet = query.executeQuery();
+
+            var compliance = new ArrayList<SlaCompliance>();
+
+            while (resultSet.next())
+            {
+                long resolvedCount = resultSet.getLong("resolvedCount");
+                long withinTargetCount = resultSet.getLong("withinTargetCount");
+
+                compliance.add(new SlaCompliance(resultSet.getString("category"), resolvedCount, withinTargetCount, (double) withinTargetCount / resolvedCount));
+            }
+
+            return compliance;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
+    /**
+     * Queries the resolution time percentiles grouped by one column of [VW_Issue]. PERCENTILE_DISC returns
+     * an actual resolution time, like the nearest-rank quantiles of {@link ResolutionSketch}.
+     */
+    private static List<ResolutionPercentiles> getResolutionPercentiles(String _idColumn, String _nameColumn, LocalDate _from, LocalDate _to) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT name, COUNT(*) AS resolvedCount, MAX(p50) AS p50, MAX(p90) AS p90, MAX(p99) AS p99
+                    FROM (
+                        SELECT %1$s AS groupId, %2$s AS name,
+                               PERCENTILE_DISC(0.5) WITHIN GROUP (ORDER BY minutes) OVER (PARTITION BY %1$s) AS p50,
+                               PERCENTILE_DISC(0.9) WITHIN GROUP (ORDER BY minutes) OVER (PARTITION BY %1$s) AS p90,
+                               PERCENTILE_DISC(0.99) WITHIN GROUP (ORDER BY minutes) OVER (PARTITION BY %1$s) AS p99
+                        FROM (
+                            SELECT %1$s, %2$s, DATEDIFF(minute, dateReported, dateResolved) AS minutes
+                            FROM [VW_Issue]
+                            WHERE stateId = ? AND %1$s IS NOT NULL AND dateReported IS NOT NULL AND dateResolved >= ? AND dateResolved < ?
+                        ) AS resolved
+                    ) AS ranked
+                    GROUP BY groupId, name
+                    ORDER BY name;
+                    """.formatted(_idColumn, _nameColumn)
+            );
+            query.setInt(1, State.RESOLVED);
+            query.setTimestamp(2, Timestamp.valueOf(_from.atStartOfDay()));
+            query.setTimestamp(3, Timestamp.valueOf(_to.plusDays(1).atStartOfDay()));
+
+            var resultSet = query.executeQuery();
+
+            var percentiles = new ArrayList<ResolutionPercentiles>();
+
+            while (resultSet.next())
+            {
+                percentiles.add(ResolutionPercentiles.of(resultSet.getString("name"), resultSet.getLong("resolvedCount"), resultSet.getDouble("p50"), resultSet.getDouble("p90"), resultSet.getDouble("p99")));
+            }
+
+            return percentiles;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package model;
+
+import java.sql.*;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * Represents a category that an IT Staff member is skilled in, and how large a share of its issues they take.
+ */
+public record StaffSkill
+(
+    int userId,
+    int categoryId,
+    double weight
+)
+{
+    /**
+     * Retrieves all the staff skills from the database.
+     *
+     * @return A list of StaffSkill objects representing all the staff skills in the database.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static List<StaffSkill> getAllStaffSkills() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var statement = connection.createStatement();
+
+            var query = """
+                    SELECT user_id, category_id, weight
+                    FROM [Staff_Skill]
+                    """;
+
+            var resultSet = statement.executeQuery(query);
+
+            var skills = new LinkedList<StaffSkill>();
+
+            while (resultSet.next())
+            {
+                int userId = resultSet.getInt("user_id");
+                int categoryId = resultSet.getInt("category_id");
+                double weight = resultSet.getDouble("weight");
+
+                skills.add(new StaffSkill(userId, categoryId, weight));
+            }
+
+            return skills;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+}
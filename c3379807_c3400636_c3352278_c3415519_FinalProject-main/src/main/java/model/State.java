@@ -3,6 +3,9 @@ package model;
 import java.sql.*;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Represents a state of issues.
@@ -13,6 +16,72 @@ public record State
     String state
 )
 {
+    /**
+     * IDs of the issue states, as seeded by CreateDatabaseScript.sql.
+     */
+    public static final int NEW = 1;
+    public static final int IN_PROGRESS = 2;
+    public static final int WAITING_ON_THIRD_PARTY = 3;
+    public static final int WAITING_ON_REPORTER = 4;
+    public static final int COMPLETED = 5;
+    public static final int NOT_ACCEPTED = 6;
+    public static final int RESOLVED = 7;
+
+    /**
+     * The states an issue may move to from each state. Resolved and Completed issues can be reopened.
+     */
+    private static final Map<Integer, Set<Integer>> TRANSITIONS = Map.of(
+            NEW, Set.of(IN_PROGRESS, NOT_ACCEPTED),
+            IN_PROGRESS, Set.of(WAITING_ON_THIRD_PARTY, WAITING_ON_REPORTER, COMPLETED, RESOLVED),
+            WAITING_ON_THIRD_PARTY, Set.of(IN_PROGRESS, COMPLETED, RESOLVED),
+            WAITING_ON_REPORTER, Set.of(IN_PROGRESS, COMPLETED, RESOLVED),
+            COMPLETED, Set.of(IN_PROGRESS, RESOLVED),
+            NOT_ACCEPTED, Set.of(NEW),
+            RESOLVED, Set.of(IN_PROGRESS)
+    );
+
+    /**
+     * Tells whether issues in a state still need work. Issues that are Resolved or Completed are not open.
+     *
+     * @param _stateId The ID of the state
+     * @return true if issues in the state are open.
+     */
+    public static boolean isOpen(int _stateId)
+    {
+        return _stateId != RESOLVED && _stateId != COMPLETED;
+    }
+
+    /**
+     * Tells whether an issue may move from one state to another.
+     *
+     * @param _fromStateId The state the issue is in
+     * @param _toStateId The state to move the issue to
+     * @return true if the transition is allowed.
+     */
+    public static boolean canTransition(int _fromStateId, int _toStateId)
+    {
+        return TRANSITIONS.getOrDefault(_fromStateId, Set.of()).contains(_toStateId);
+    }
+
+    /**
+     * Returns the states from which an issue may move to a given state.
+     *
+     * @param _toStateId The state to move issues to
+     * @return The IDs of the states that may move to the given state, in ascending order.
+     */
+    public static Set<Integer> getStatesBefore(int _toStateId)
+    {
+        var before = new TreeSet<Integer>();
+        TRANSITIONS.forEach((from, to) ->
+        {
+            if (to.contains(_toStateId))
+            {
+                before.add(from);
+            }
+        });
+        return before;
+    }
+
     /**
      * Retrieves all the states from the database.
      *
@@ -29,7 +98,7 @@ public record State
 
             var query = """
                     SELECT *
-                    FROM [State]
+                    FROM [Issue_State]
                     """;
 
             var resultSet = statement.executeQuery(query);
@@ -57,9 +126,10 @@ public record State
      * Inserts a state in the database.
      *
      * @param _state The state to be inserted.
+     * @return The ID generated for the inserted state.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertState(State _state) throws SQLException
+    public static int insertState(State _state) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -68,10 +138,17 @@ public record State
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [Issue_State] (state_name) VALUES (?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _state.state());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int stateId = keys.next() ? keys.getInt(1) : 0;
+
+            ReferenceData.putState(new State(stateId, _state.state()));
+            return stateId;
         }
         finally
         {
@@ -99,6 +176,8 @@ public record State
             query.setString(1, _state.state());
             query.setInt(2, _state.stateId());
             query.executeUpdate();
+
+            ReferenceData.putState(_state);
         }
         finally
         {
@@ -0,0 +1,24 @@
+package model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Represents a consistent, immutable view of the issue statistics at one point in time.
+ *
+ * @param issuesPerCategory The number of issues in each category, by category name
+ * @param issuesPerStatus The number of issues in each state, by state name
+ * @param issuesPerStaff The number of issues assigned to each staff member, by full name
+ * @param averageResolutionTime The average number of days to resolve the issues resolved in the last 30 days
+ * @param longestUnresolvedIssues The open issues that were reported the longest time ago, oldest first
+ */
+public record StatisticsSnapshot
+(
+    Map<String, Long> issuesPerCategory,
+    Map<String, Long> issuesPerStatus,
+    Map<String, Long> issuesPerStaff,
+    double averageResolutionTime,
+    List<OpenIssue> longestUnresolvedIssues
+)
+{
+}
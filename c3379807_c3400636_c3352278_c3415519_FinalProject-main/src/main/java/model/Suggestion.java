@@ -0,0 +1,17 @@
+package model;
+
+/**
+ * Represents one entry offered by a type-ahead field.
+ *
+ * @param id The ID of the keyword, user or issue
+ * @param label The text shown for the entry
+ * @param detail Extra text shown next to the label, such as a username, or null
+ */
+public record Suggestion
+(
+    int id,
+    String label,
+    String detail
+)
+{
+}
@@ -0,0 +1,128 @@
+package model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into the terms used by the in-memory text indexes: the text is lower-cased, split
+ * on anything that is not a letter or digit, common English stop words are dropped and the remaining
+ * words are reduced to a stem, so that "printers" matches "printer" and "crashing" matches "crashed".
+ *
+ * The stemmer only strips the common inflectional suffixes (plurals, -ed, -ing, -ly and a few
+ * derivational endings); it is deliberately lighter than a full Porter stemmer, which is enough
+ * for the short texts of issues and articles.
+ */
+final class TextAnalyzer
+{
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "been", "but", "by", "can", "do", "does", "for", "from",
+            "had", "has", "have", "i", "if", "in", "into", "is", "it", "its", "me", "my", "no", "not", "of", "on",
+            "or", "our", "so", "that", "the", "their", "then", "there", "these", "this", "to", "was", "we",
+            "were", "when", "which", "will", "with", "you", "your"
+    );
+
+    private static final String[][] SUFFIXES = {
+            { "ational", "ate" }, { "ization", "ize" }, { "fulness", "ful" }, { "iveness", "ive" },
+            { "ations", "ate" }, { "ation", "ate" }, { "ments", "" }, { "ment", "" }, { "ness", "" },
+            { "ings", "" }, { "ing", "" }, { "ies", "y" }, { "ied", "y" }, { "edly", "" }, { "ed", "" },
+            { "ly", "" }, { "s", "" }
+    };
+
+    private TextAnalyzer()
+    {
+    }
+
+    /**
+     * Splits text into stemmed terms, in the order they appear. Repeated words give repeated terms.
+     *
+     * @param _text The text to analyse, may be null
+     * @return The terms of the text.
+     */
+    static List<String> terms(String _text)
+    {
+        var terms = new ArrayList<String>();
+
+        if (_text == null)
+        {
+            return terms;
+        }
+
+        var lower = _text.toLowerCase(Locale.ROOT);
+        int start = -1;
+
+        for (int i = 0; i <= lower.length(); i++)
+        {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+
+            if (wordChar && start < 0)
+            {
+                start = i;
+            }
+            else if (!wordChar && start >= 0)
+            {
+                var word = lower.substring(start, i);
+
+                if (!STOP_WORDS.contains(word))
+                {
+                    terms.add(stem(word));
+                }
+
+                start = -1;
+            }
+        }
+
+        return terms;
+    }
+
+    /**
+     * Strips the first matching suffix from a word, as long as a stem of a useful length remains,
+     * then drops a final "e" so that "issue", "issues" and "issued" share the stem "issu".
+     *
+     * @param _word A lower-case word
+     * @return The stem of the word.
+     */
+    static String stem(String _word)
+    {
+        if (_word.length() <= MIN_STEM_LENGTH || Character.isDigit(_word.charAt(0)))
+        {
+            return _word;
+        }
+
+        var stem = _word;
+
+        for (var suffix : SUFFIXES)
+        {
+            if (_word.endsWith(suffix[0]) && _word.length() - suffix[0].length() + suffix[1].length() >= MIN_STEM_LENGTH)
+            {
+                // "ss" is not a plural, as in "access"
+                if (suffix[0].equals("s") && _word.endsWith("ss"))
+                {
+                    break;
+                }
+
+                stem = _word.substring(0, _word.length() - suffix[0].length()) + suffix[1];
+
+                // A doubled final consonant is undone, as in "stopped"
+                if ((suffix[0].equals("ed") || suffix[0].equals("ing")) && stem.length() > MIN_STEM_LENGTH
+                        && stem.charAt(stem.length() - 1) == stem.charAt(stem.length() - 2)
+                        && "lsz".indexOf(stem.charAt(stem.length() - 1)) < 0)
+                {
+                    stem = stem.substring(0, stem.length() - 1);
+                }
+
+                break;
+            }
+        }
+
+        if (stem.length() > MIN_STEM_LENGTH && stem.endsWith("e"))
+        {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+
+        return stem;
+    }
+}
@@ -0,0 +1,222 @@
+package model;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binds one connection and transaction to the current thread, so that several model calls
+ * run atomically on a single pooled connection instead of checking one out each.
+ *
+ * While a unit of work is active, ConfigBean.getConnection returns the bound connection and
+ * closing it is a no-op, so the existing DAO methods join the transaction without any change.
+ * Units of work nest: an inner unit joins the outer one and only the outermost commits.
+ *
+ * <pre>
+ * try (var unitOfWork = UnitOfWork.begin())
+ * {
+ *     int issueId = Issue.insertIssue(issue);
+ *     IssueKeyword.insertIssueKeywords(issueId, keywordIds);
+ *     unitOfWork.commit();
+ * }
+ * </pre>
+ */
+public final class UnitOfWork implements AutoCloseable
+{
+    private static final ThreadLocal<Context> current = new ThreadLocal<>();
+
+    /**
+     * The state shared by a unit of work and the units nested inside it.
+     */
+    private static final class Context
+    {
+        private final Connection connection;
+        private final Connection shared;
+        private final List<Runnable> afterCommit = new ArrayList<>();
+        private boolean rollbackOnly;
+
+        private Context(Connection _connection)
+        {
+            connection = _connection;
+            shared = (Connection) Proxy.newProxyInstance
+            (
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) ->
+                {
+                    // The connection is released by the unit of work, not by the DAO using it
+                    if (method.getName().equals("close"))
+                    {
+                        return null;
+                    }
+
+                    try
+                    {
+                        return method.invoke(_connection, args);
+                    }
+                    catch (InvocationTargetException e)
+                    {
+                        throw e.getCause();
+                    }
+                }
+            );
+        }
+    }
+
+    private final Context context;
+    private final boolean outermost;
+    private boolean completed;
+
+    private UnitOfWork(Context _context, boolean _outermost)
+    {
+        context = _context;
+        outermost = _outermost;
+    }
+
+    /**
+     * Starts a unit of work on the current thread, or joins the one that is already active.
+     *
+     * @return The unit of work, to be closed in a try-with-resources block.
+     * @throws SQLException if a connection cannot be obtained from the pool.
+     */
+    public static UnitOfWork begin() throws SQLException
+    {
+        var active = current.get();
+
+        if (active != null)
+        {
+            return new UnitOfWork(active, false);
+        }
+
+        var connection = ConfigBean.getPooledConnection();
+
+        try
+        {
+            connection.setAutoCommit(false);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+
+        var context = new Context(connection);
+        current.set(context);
+        return new UnitOfWork(context, true);
+    }
+
+    /**
+     * Returns the connection bound to the current thread.
+     *
+     * @return A connection whose close method does nothing, or null if no unit of work is active.
+     */
+    static Connection currentConnection()
+    {
+        var active = current.get();
+        return active == null ? null : active.shared;
+    }
+
+    /**
+     * Runs an action once the current unit of work has committed, or straight away if no unit of
+     * work is active. Actions registered in a unit of work that rolls back are discarded, so in-memory
+     * state updated by them never reflects changes that were not committed.
+     *
+     * @param _action The action to run after commit
+     */
+    public static void afterCommit(Runnable _action)
+    {
+        var active = current.get();
+
+        if (active == null)
+        {
+            _action.run();
+        }
+        else
+        {
+            active.afterCommit.add(_action);
+        }
+    }
+
+    /**
+     * Returns whether a unit of work is active on the current thread.
+     *
+     * @return true if model calls on this thread currently share a transaction.
+     */
+    public static boolean isActive()
+    {
+        return current.get() != null;
+    }
+
+    /**
+     * Commits the transaction. A nested unit of work only marks itself as complete and
+     * leaves the commit to the outermost one.
+     *
+     * @throws SQLException if the commit fails, or a nested unit of work was closed without committing.
+     */
+    public void commit() throws SQLException
+    {
+        if (completed)
+        {
+            throw new IllegalStateException("Unit of work has already completed.");
+        }
+
+        if (!outermost)
+        {
+            completed = true;
+            return;
+        }
+
+        if (context.rollbackOnly)
+        {
+            context.connection.rollback();
+            completed = true;
+            throw new SQLException("Transaction rolled back because a nested unit of work did not commit.");
+        }
+
+        // Only marked complete once the commit succeeds, so close() still rolls back a failed commit
+        context.connection.commit();
+        completed = true;
+
+        for (var action : context.afterCommit)
+        {
+            action.run();
+        }
+        context.afterCommit.clear();
+    }
+
+    /**
+     * Rolls back the transaction unless it was committed, and releases the connection
+     * if this is the outermost unit of work.
+     *
+     * @throws SQLException if the rollback or the release of the connection fails.
+     */
+    @Override
+    public void close() throws SQLException
+    {
+        if (!outermost)
+        {
+            if (!completed)
+            {
+                context.rollbackOnly = true;
+            }
+            return;
+        }
+
+        current.remove();
+
+        try
+        {
+            if (!completed)
+            {
+                context.connection.rollback();
+            }
+            context.connection.setAutoCommit(true);
+        }
+        finally
+        {
+            context.connection.close();
+        }
+    }
+}
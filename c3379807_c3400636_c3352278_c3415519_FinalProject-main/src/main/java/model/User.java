@@ -2,6 +2,7 @@ package model;
 
 import java.sql.*;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * Represents a user in the system.
@@ -51,7 +52,7 @@ public record User
                 String password = resultSet.getString("password");
                 String firstName = resultSet.getString("firstName");
                 String lastName = resultSet.getString("lastName");
-                String fullName = resultSet.getString("fullName");
+                String fullName = firstName + " " + lastName;
                 String email = resultSet.getString("email");
                 int contactNumber = resultSet.getInt("contactNumber");
                 int roleId = resultSet.getInt("roleId");
@@ -70,6 +71,38 @@ public record User
         }
     }
 
+    /**
+     * Streams all the users from the database, without loading them all into memory.
+     * The returned stream holds a database connection until it is closed, so it must be used in a
+     * try-with-resources block.
+     *
+     * @return A stream of User objects, read from the database as the stream is consumed.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Stream<User> streamAllUsers() throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT *
+                    FROM [VW_User];
+                    """,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+            );
+
+            return ResultSetStreams.stream(connection, query, User::readUser);
+        }
+        catch (SQLException e)
+        {
+            connection.close();
+            throw e;
+        }
+    }
+
     /**
      * Retrieves a user from the database.
      *
@@ -101,7 +134,7 @@ public record User
                 String password = resultSet.getString("password");
                 String firstName = resultSet.getString("firstName");
                 String lastName = resultSet.getString("lastName");
-                String fullName = resultSet.getString("fullName");
+                String fullName = firstName + " " + lastName;
                 String email = resultSet.getString("email");
                 int contactNumber = resultSet.getInt("contactNumber");
                 int roleId = resultSet.getInt("roleId");
@@ -150,7 +183,7 @@ public record User
                 String password = resultSet.getString("password");
                 String firstName = resultSet.getString("firstName");
                 String lastName = resultSet.getString("lastName");
-                String fullName = resultSet.getString("fullName");
+                String fullName = firstName + " " + lastName;
                 String email = resultSet.getString("email");
                 int contactNumber = resultSet.getInt("contactNumber");
                 int roleId = resultSet.getInt("roleId");
@@ -168,13 +201,57 @@ public record User
         }
     }
 
+    /**
+     * Retrieves the credentials of a user from the database, without the rest of their details.
+     *
+     * @param _username The username of the user to be retrieved
+     * @return The user's credentials, or null if there is no user with that username.
+     * @throws SQLException if there is an error in executing the SQL query.
+     */
+    public static Credentials getCredentialsByUsername(String _username) throws SQLException
+    {
+        var connection = ConfigBean.getConnection();
+
+        try
+        {
+            var query = connection.prepareStatement(
+                    """
+                    SELECT userId, username, password, roleId, role
+                    FROM [VW_User]
+                    WHERE username = ?;
+                    """
+            );
+            query.setString(1, _username);
+
+            var resultSet = query.executeQuery();
+
+            if (resultSet.next())
+            {
+                int userId = resultSet.getInt("userId");
+                String username = resultSet.getString("username");
+                String password = resultSet.getString("password");
+                int roleId = resultSet.getInt("roleId");
+                String role = resultSet.getString("role");
+
+                return new Credentials(userId, username, password, roleId, role);
+            }
+
+            return null;
+        }
+        finally
+        {
+            connection.close();
+        }
+    }
+
     /**
      * Inserts a user in the database.
      *
      * @param _user The user to be inserted.
+     * @return The ID generated for the inserted user.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertUser(User _user) throws SQLException
+    public static int insertUser(User _user) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -183,7 +260,8 @@ public record User
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [User] (username, password, first_name, last_name, email, contact_number, role_id) VALUES (?,?,?,?,?,?,?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _user.username());
             query.setString(2, _user.password());
@@ -193,6 +271,16 @@ public record User
             query.setInt(6, _user.contactNumber());
             query.setInt(7, _user.roleId());
             query.executeUpdate();
+
+            CredentialCache.invalidate(_user.username());
+
+            var keys = query.getGeneratedKeys();
+            int userId = keys.next() ? keys.getInt(1) : 0;
+
+            var saved = new User(userId, _user.username(), _user.password(), _user.firstName(), _user.lastName(), _user.fullName(), _user.email(), _user.contactNumber(), _user.roleId(), _user.role());
+            AutocompleteIndex.userSaved(saved);
+            AssignmentEngine.userSaved(saved);
+            return userId;
         }
         finally
         {
@@ -226,10 +314,34 @@ public record User
             query.setInt(7, _user.roleId());
             query.setInt(8, _user.userId());
             query.executeUpdate();
+
+            CredentialCache.invalidateUser(_user.userId());
+            CredentialCache.invalidate(_user.username());
+            AutocompleteIndex.userSaved(_user);
+            AssignmentEngine.userSaved(_user);
         }
         finally
         {
             connection.close();
         }
     }
-}
+
+    /**
+     * Reads the user at the current row of a result set over [VW_User].
+     */
+    private static User readUser(ResultSet _resultSet) throws SQLException
+    {
+        int userId = _resultSet.getInt("userId");
+        String username = _resultSet.getString("username");
+        String password = _resultSet.getString("password");
+        String firstName = _resultSet.getString("firstName");
+        String lastName = _resultSet.getString("lastName");
+        String fullName = firstName + " " + lastName;
+        String email = _resultSet.getString("email");
+        int contactNumber = _resultSet.getInt("contactNumber");
+        int roleId = _resultSet.getInt("roleId");
+        String role = _resultSet.getString("role");
+
+        return new User(userId, username, password, firstName, lastName, fullName, email, contactNumber, roleId, role);
+    }
+}
\ No newline at end of file
@@ -57,9 +57,10 @@ public record UserRole
      * Inserts a user role in the database.
      *
      * @param _userRole The user role to be inserted.
+     * @return The ID generated for the inserted user role.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void insertUserRole(UserRole _userRole) throws SQLException
+    public static int insertUserRole(UserRole _userRole) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -68,10 +69,17 @@ public record UserRole
             var query = connection.prepareStatement(
                     """
                     INSERT INTO [User_Role] (role_name) VALUES (?);
-                    """
+                    """,
+                    Statement.RETURN_GENERATED_KEYS
             );
             query.setString(1, _userRole.role());
             query.executeUpdate();
+
+            var keys = query.getGeneratedKeys();
+            int roleId = keys.next() ? keys.getInt(1) : 0;
+
+            ReferenceData.putUserRole(new UserRole(roleId, _userRole.role()));
+            return roleId;
         }
         finally
         {
@@ -85,7 +93,7 @@ public record UserRole
      * @param _userRole The user role to be updated.
      * @throws SQLException if there is an error in executing the SQL query.
      */
-    public static void updateUserRole(User _userRole) throws SQLException
+    public static void updateUserRole(UserRole _userRole) throws SQLException
     {
         var connection = ConfigBean.getConnection();
 
@@ -99,6 +107,8 @@ public record UserRole
             query.setString(1, _userRole.role());
             query.setInt(2, _userRole.roleId());
             query.executeUpdate();
+
+            ReferenceData.putUserRole(_userRole);
         }
         finally
         {
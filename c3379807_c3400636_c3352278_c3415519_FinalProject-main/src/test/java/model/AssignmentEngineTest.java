@@ -0,0 +1,124 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+
+class AssignmentEngineTest
+{
+    private static final int NETWORK = 1;
+    private static final int PRINTING = 2;
+    private static final int OTHER = 3;
+
+    private static IssueSummary summary(int _issueId, int _categoryId, int _stateId, int _assignedToId)
+    {
+        return new IssueSummary(_issueId, "Issue " + _issueId, _categoryId, null, _stateId, null, null, null, 1, null, _assignedToId, null);
+    }
+
+    private static Issue issue(int _issueId, int _categoryId, int _stateId, int _assignedToId)
+    {
+        return new Issue(_issueId, "Issue " + _issueId, "", null, _categoryId, null, _stateId, null, null, null, 1, null, _assignedToId, null);
+    }
+
+    /**
+     * Staff 10 and 11 are generalists; 12 is skilled in networking at twice the usual rate.
+     * Staff 10 has two open issues and one resolved, 11 has one open issue and 12 has two.
+     */
+    private static void load()
+    {
+        AssignmentEngine.load(
+                List.of(10, 11, 12),
+                List.of(new StaffSkill(12, NETWORK, 2.0)),
+                Stream.of(
+                        summary(1, OTHER, State.NEW, 10),
+                        summary(2, OTHER, State.IN_PROGRESS, 10),
+                        summary(3, OTHER, State.RESOLVED, 10),
+                        summary(4, OTHER, State.IN_PROGRESS, 11),
+                        summary(5, NETWORK, State.NEW, 12),
+                        summary(6, NETWORK, State.WAITING_ON_REPORTER, 12)));
+    }
+
+    @Test
+    void openIssuesAreCountedPerStaffMember() throws Exception
+    {
+        load();
+
+        assertEquals(Map.of(10, 2, 11, 1, 12, 2), AssignmentEngine.getOpenCounts());
+    }
+
+    @Test
+    void unskilledCategoriesGoToTheLeastLoadedStaff() throws Exception
+    {
+        load();
+
+        // 11 has 1; 10 has 2; 12 has 2 at an average weight of 2, so a load of 1, and loses the tie on ID
+        assertEquals(11, AssignmentEngine.reserveStaff(OTHER));
+
+        // Now 10 and 11 have 2, and 12 still has a load of 1, then 1.5
+        assertEquals(12, AssignmentEngine.reserveStaff(PRINTING));
+        assertEquals(12, AssignmentEngine.reserveStaff(OTHER));
+        assertEquals(10, AssignmentEngine.reserveStaff(OTHER));
+        assertEquals(Map.of(10, 3, 11, 2, 12, 4), AssignmentEngine.getOpenCounts());
+    }
+
+    @Test
+    void skilledCategoriesOnlyGoToSkilledStaff() throws Exception
+    {
+        load();
+
+        for (int i = 0; i < 3; i++)
+        {
+            assertEquals(12, AssignmentEngine.reserveStaff(NETWORK));
+        }
+
+        assertEquals(Map.of(10, 2, 11, 1, 12, 5), AssignmentEngine.getOpenCounts());
+    }
+
+    @Test
+    void releasedReservationsAreGivenBack() throws Exception
+    {
+        load();
+
+        int staffId = AssignmentEngine.reserveStaff(OTHER);
+        AssignmentEngine.releaseStaff(staffId);
+        AssignmentEngine.releaseStaff(staffId);
+
+        assertEquals(Map.of(10, 2, 11, 1, 12, 2), AssignmentEngine.getOpenCounts());
+        assertEquals(staffId, AssignmentEngine.reserveStaff(OTHER));
+    }
+
+    @Test
+    void savingAReservedIssueSettlesTheReservation() throws Exception
+    {
+        load();
+
+        int staffId = AssignmentEngine.reserveStaff(OTHER);
+        IssueEvents.issueSaved(issue(7, OTHER, State.NEW, staffId));
+
+        // Already counted when reserved, and no longer releasable
+        AssignmentEngine.releaseStaff(staffId);
+
+        assertEquals(Map.of(10, 2, 11, 2, 12, 2), AssignmentEngine.getOpenCounts());
+    }
+
+    @Test
+    void countsFollowAssignmentsAndStateChanges() throws Exception
+    {
+        load();
+
+        IssueEvents.issueAssigned(1, 11);
+        assertEquals(Map.of(10, 1, 11, 2, 12, 2), AssignmentEngine.getOpenCounts());
+
+        IssueEvents.issueResolved(1, State.RESOLVED, "Fixed", null);
+        assertEquals(Map.of(10, 1, 11, 1, 12, 2), AssignmentEngine.getOpenCounts());
+
+        IssueEvents.issueStateChanged(3, State.IN_PROGRESS);
+        assertEquals(Map.of(10, 2, 11, 1, 12, 2), AssignmentEngine.getOpenCounts());
+
+        assertEquals(11, AssignmentEngine.reserveStaff(OTHER));
+    }
+}
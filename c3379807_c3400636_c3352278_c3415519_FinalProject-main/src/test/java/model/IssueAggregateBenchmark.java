@@ -0,0 +1,140 @@
+package model;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures where splitting {@link IssueColumnsSnapshot#aggregate()} across the fork-join pool starts to
+ * pay, to choose itportal.analytics.parallel-threshold. Run it on the hardware the portal is deployed to
+ * with gradle aggregateBenchmark.
+ *
+ * It reports two things. First, the sequential cost per row and the fixed cost of each forked range
+ * (forking, joining, and allocating and combining its partial counts), measured by splitting a snapshot
+ * into many small ranges. The ranges counted directly hold between half the threshold and the
+ * threshold, so the threshold is set to twice the number of rows that keeps this fixed cost under 1%
+ * of a range's work, whatever the number of cores. Second, the sequential and fork-join times over a
+ * range of snapshot sizes, and the size from which fork-join wins at every larger size on this machine.
+ */
+final class IssueAggregateBenchmark
+{
+    private static final int[] SIZES = { 1000, 5000, 10000, 25000, 50000, 100000, 250000, 1000000, 5000000 };
+    private static final int RUNS = 30;
+    private static final int SMALL_RANGE = 256;
+
+    /**
+     * The share of a range's time that its fixed cost may take.
+     */
+    private static final double MAX_OVERHEAD = 0.01;
+
+    private IssueAggregateBenchmark()
+    {
+    }
+
+    public static void main(String[] _args)
+    {
+        System.out.printf("Cores: %d, fork-join parallelism: %d%n%n", Runtime.getRuntime().availableProcessors(), ForkJoinPool.commonPool().getParallelism());
+
+        var calibration = randomSnapshot(1000000, 1);
+        double sequentialNanos = best(calibration, Integer.MAX_VALUE);
+        double splitNanos = best(calibration, SMALL_RANGE);
+        double nanosPerRow = sequentialNanos / calibration.size();
+        double nanosPerRange = Math.max(0, splitNanos - sequentialNanos) / (calibration.size() / (double) SMALL_RANGE);
+        int threshold = (int) Math.max(2 * Math.round(nanosPerRange / (nanosPerRow * MAX_OVERHEAD)), 1);
+
+        System.out.printf("Sequential: %.2f ns per row%n", nanosPerRow);
+        System.out.printf("Fixed cost: %.0f ns per forked range%n", nanosPerRange);
+        System.out.printf("Threshold keeping the fixed cost under %.0f%% of each range: %d rows%n%n", MAX_OVERHEAD * 100, threshold);
+
+        System.out.printf("%10s %14s %14s%n", "Rows", "Sequential ms", "Fork-join ms");
+        int crossover = -1;
+
+        for (int size : SIZES)
+        {
+            var snapshot = randomSnapshot(size, size);
+            double sequential = best(snapshot, Integer.MAX_VALUE) / 1e6;
+
+            // Forced to split, so small sizes show the cost of forking as well
+            double parallel = best(snapshot, Math.min(threshold, Math.max(size / 2, 1))) / 1e6;
+
+            System.out.printf("%10d %14.3f %14.3f%n", size, sequential, parallel);
+
+            if (parallel < sequential * 0.9)
+            {
+                crossover = crossover < 0 ? size : crossover;
+            }
+            else
+            {
+                crossover = -1;
+            }
+        }
+
+        System.out.println();
+        System.out.println(crossover < 0
+                ? "Fork-join was not at least 10% faster up to the largest size on this machine."
+                : "Fork-join is at least 10% faster from " + crossover + " rows.");
+    }
+
+    /**
+     * Returns the best time of several runs of an aggregation, after a warm-up, in nanoseconds.
+     */
+    private static double best(IssueColumnsSnapshot _snapshot, int _threshold)
+    {
+        long best = Long.MAX_VALUE;
+        long checksum = 0;
+
+        for (int run = 0; run < RUNS * 2; run++)
+        {
+            long start = System.nanoTime();
+            var aggregate = _snapshot.aggregate(_threshold);
+            long elapsed = System.nanoTime() - start;
+
+            checksum += aggregate.getIssuesPerState().size();
+
+            // The first half of the runs warms up the JIT
+            if (run >= RUNS)
+            {
+                best = Math.min(best, elapsed);
+            }
+        }
+
+        if (checksum < 0)
+        {
+            System.out.println(checksum);
+        }
+
+        return best;
+    }
+
+    /**
+     * Builds a snapshot of random issues over 20 categories, the 7 states and 200 staff members.
+     *
+     * @param _size The number of issues
+     * @param _seed The seed of the random values
+     * @return The snapshot.
+     */
+    static IssueColumnsSnapshot randomSnapshot(int _size, long _seed)
+    {
+        var random = new Random(_seed);
+        var issueIds = new int[_size];
+        var categoryIds = new int[_size];
+        var stateIds = new int[_size];
+        var reportedByIds = new int[_size];
+        var assignedToIds = new int[_size];
+        var reportedMillis = new long[_size];
+        var resolvedMillis = new long[_size];
+
+        for (int row = 0; row < _size; row++)
+        {
+            issueIds[row] = row + 1;
+            categoryIds[row] = 1 + random.nextInt(20);
+            stateIds[row] = 1 + random.nextInt(State.RESOLVED);
+            reportedByIds[row] = 1 + random.nextInt(5000);
+            assignedToIds[row] = random.nextInt(201);
+            reportedMillis[row] = random.nextInt(1000000000);
+            resolvedMillis[row] = stateIds[row] == State.RESOLVED ? reportedMillis[row] + random.nextInt(100000000) : Long.MIN_VALUE;
+        }
+
+        return new IssueColumnsSnapshot(_size, issueIds, categoryIds, stateIds, reportedByIds, assignedToIds, reportedMillis, resolvedMillis, Map.of());
+    }
+}
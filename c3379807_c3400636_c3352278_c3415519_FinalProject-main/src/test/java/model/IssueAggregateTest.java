@@ -0,0 +1,67 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class IssueAggregateTest
+{
+    private static final long HOUR_MILLIS = 3600000L;
+
+    private static IssueColumnsSnapshot snapshot()
+    {
+        return new IssueColumnsSnapshot(
+                6,
+                new int[] { 1, 2, 3, 4, 5, 6 },
+                new int[] { 1, 1, 2, 2, 2, 3 },
+                new int[] { State.NEW, State.RESOLVED, State.IN_PROGRESS, State.COMPLETED, State.RESOLVED, State.NEW },
+                new int[] { 7, 7, 8, 8, 8, 7 },
+                new int[] { 4, 4, 5, 0, 5, 0 },
+                new long[] { 0, 0, 0, 0, 0, 0 },
+                new long[] { Long.MIN_VALUE, 2 * HOUR_MILLIS, Long.MIN_VALUE, HOUR_MILLIS, 4 * HOUR_MILLIS, Long.MIN_VALUE },
+                Map.of());
+    }
+
+    @Test
+    void countsEveryIssueInOnePass()
+    {
+        var aggregate = snapshot().aggregate(Integer.MAX_VALUE);
+
+        assertEquals(Map.of(1, 2L, 2, 3L, 3, 1L), aggregate.getIssuesPerCategory());
+        assertEquals(Map.of(State.NEW, 2L, State.IN_PROGRESS, 1L, State.COMPLETED, 1L, State.RESOLVED, 2L), aggregate.getIssuesPerState());
+        assertEquals(Map.of(4, 2L, 5, 2L), aggregate.getIssuesPerStaff());
+        assertEquals(Map.of(4, 1L, 5, 1L), aggregate.getOpenIssuesPerStaff());
+
+        // Only Resolved issues count towards the resolution time, not Completed ones
+        assertEquals(3 * HOUR_MILLIS, aggregate.getAverageResolutionMillis(), 0);
+    }
+
+    @Test
+    void splitRangesCombineToTheSequentialResult()
+    {
+        var snapshot = IssueAggregateBenchmark.randomSnapshot(10007, 42);
+        var sequential = snapshot.aggregate(Integer.MAX_VALUE);
+
+        for (int threshold : new int[] { 1, 3, 100, 5000 })
+        {
+            var parallel = snapshot.aggregate(threshold);
+
+            assertEquals(sequential.getIssuesPerCategory(), parallel.getIssuesPerCategory());
+            assertEquals(sequential.getIssuesPerState(), parallel.getIssuesPerState());
+            assertEquals(sequential.getIssuesPerStaff(), parallel.getIssuesPerStaff());
+            assertEquals(sequential.getOpenIssuesPerStaff(), parallel.getOpenIssuesPerStaff());
+            assertEquals(sequential.getAverageResolutionMillis(), parallel.getAverageResolutionMillis(), 0);
+        }
+    }
+
+    @Test
+    void anEmptySnapshotHasNoCounts()
+    {
+        var aggregate = IssueAggregateBenchmark.randomSnapshot(0, 1).aggregate(1);
+
+        assertEquals(Map.of(), aggregate.getIssuesPerCategory());
+        assertEquals(0, aggregate.getAverageResolutionMillis(), 0);
+    }
+}
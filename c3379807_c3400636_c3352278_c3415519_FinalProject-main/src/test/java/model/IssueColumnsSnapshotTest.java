@@ -0,0 +1,80 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class IssueColumnsSnapshotTest
+{
+    private static final long DAY_MILLIS = 86400000L;
+    private static final long NOW = 1000 * DAY_MILLIS;
+
+    /**
+     * Five issues over two categories, two states and two assignees (0 is unassigned), reported 1 to 100 days ago.
+     */
+    private static IssueColumnsSnapshot snapshot()
+    {
+        return new IssueColumnsSnapshot(
+                5,
+                new int[] { 1, 2, 3, 4, 5 },
+                new int[] { 10, 10, 20, 20, 20 },
+                new int[] { State.NEW, State.RESOLVED, State.NEW, State.NEW, State.RESOLVED },
+                new int[] { 100, 100, 101, 100, 101 },
+                new int[] { 200, 201, 0, 200, 201 },
+                new long[] { NOW - DAY_MILLIS, NOW - 10 * DAY_MILLIS, NOW - 40 * DAY_MILLIS, NOW - 100 * DAY_MILLIS, NOW - 5 * DAY_MILLIS },
+                new long[] { Long.MIN_VALUE, NOW, Long.MIN_VALUE, Long.MIN_VALUE, NOW },
+                Map.of(100, "Reporter A", 101, "Reporter B", 200, "Staff A", 201, "Staff B"));
+    }
+
+    @Test
+    void withoutAFilterEveryIssueCounts()
+    {
+        var counts = snapshot().getFacetCounts(IssueFilter.none(), NOW);
+
+        assertEquals(Map.of(10, 2, 20, 3), counts.categories());
+        assertEquals(Map.of(State.NEW, 3, State.RESOLVED, 2), counts.states());
+        assertEquals(Map.of(200, 2, 201, 2), counts.assignees());
+        assertEquals(Map.of(100, 3, 101, 2), counts.reporters());
+        assertEquals(Map.of(7, 2, 30, 3, 90, 4, 365, 5), counts.reportedWithinDays());
+    }
+
+    @Test
+    void aFacetIsNotNarrowedByItsOwnSelection()
+    {
+        var counts = snapshot().getFacetCounts(new IssueFilter(20, null, null, null, null, null), NOW);
+
+        // The other categories stay selectable with the number of issues they would show
+        assertEquals(Map.of(10, 2, 20, 3), counts.categories());
+
+        // Every other facet only counts the selected category
+        assertEquals(Map.of(State.NEW, 2, State.RESOLVED, 1), counts.states());
+        assertEquals(Map.of(200, 1, 201, 1), counts.assignees());
+        assertEquals(Map.of(100, 1, 101, 2), counts.reporters());
+    }
+
+    @Test
+    void eachFacetIsNarrowedByEveryOtherSelection()
+    {
+        var counts = snapshot().getFacetCounts(new IssueFilter(20, State.NEW, null, null, null, null), NOW);
+
+        assertEquals(Map.of(10, 1, 20, 2), counts.categories());
+        assertEquals(Map.of(State.NEW, 2, State.RESOLVED, 1), counts.states());
+        assertEquals(Map.of(200, 1), counts.assignees());
+        assertEquals(Map.of(100, 1, 101, 1), counts.reporters());
+        assertEquals(Map.of(7, 0, 30, 0, 90, 1, 365, 2), counts.reportedWithinDays());
+    }
+
+    @Test
+    void theDateRangeIsAFacetLikeTheOthers()
+    {
+        var filter = new IssueFilter(null, null, null, null, new Date(NOW - 30 * DAY_MILLIS), new Date(NOW));
+        var counts = snapshot().getFacetCounts(filter, NOW);
+
+        assertEquals(Map.of(10, 2, 20, 1), counts.categories());
+        assertEquals(Map.of(100, 2, 101, 1), counts.reporters());
+        assertEquals(Map.of(7, 2, 30, 3, 90, 4, 365, 5), counts.reportedWithinDays());
+    }
+}
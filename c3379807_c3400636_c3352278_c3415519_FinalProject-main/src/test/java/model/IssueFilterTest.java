@@ -0,0 +1,50 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.HashSet;
+
+import org.junit.jupiter.api.Test;
+
+class IssueFilterTest
+{
+    @Test
+    void clauseDependsOnlyOnWhichCriteriaAreApplied()
+    {
+        var first = new IssueFilter(1, State.NEW, 10, 20, new Date(0), null);
+        var second = new IssueFilter(7, State.RESOLVED, 11, 21, new Date(86400000L), null);
+
+        assertEquals(first.whereClause(), second.whereClause());
+        assertEquals(IssueSummary.pageQuery(first, SortDirection.DESCENDING, true), IssueSummary.pageQuery(second, SortDirection.DESCENDING, true));
+    }
+
+    @Test
+    void eachCombinationOfCriteriaHasOneShape()
+    {
+        var shapes = new HashSet<String>();
+
+        for (int mask = 0; mask < 64; mask++)
+        {
+            var filter = new IssueFilter(
+                (mask & 1) != 0 ? 1 : null,
+                (mask & 2) != 0 ? State.NEW : null,
+                (mask & 4) != 0 ? 10 : null,
+                (mask & 8) != 0 ? 20 : null,
+                (mask & 16) != 0 ? new Date(0) : null,
+                (mask & 32) != 0 ? new Date(86400000L) : null
+            );
+            shapes.add(filter.whereClause());
+        }
+
+        assertEquals(64, shapes.size());
+    }
+
+    @Test
+    void predicatesKeepTheOrderOfTheParameters()
+    {
+        var filter = new IssueFilter(1, null, 10, null, null, new Date(0));
+
+        assertEquals("WHERE 1 = 1\n  AND categoryId = ?\n  AND assignedToId = ?\n  AND dateReported < ?\n", filter.whereClause());
+    }
+}
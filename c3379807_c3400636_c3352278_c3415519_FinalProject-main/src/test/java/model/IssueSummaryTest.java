@@ -0,0 +1,50 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.Test;
+
+class IssueSummaryTest
+{
+    /**
+     * Report dates on the .003 and .007 boundaries that a datetime column rounds to, as the driver reads them.
+     */
+    private static final Timestamp AT_003 = Timestamp.valueOf("2024-03-01 09:15:00.003");
+    private static final Timestamp AT_007 = Timestamp.valueOf("2024-03-01 09:15:00.007");
+
+    @Test
+    void seekComparesTheCursorAsDatetime()
+    {
+        for (var direction : SortDirection.values())
+        {
+            String query = IssueSummary.pageQuery(IssueFilter.none(), direction, true);
+            String comparison = direction == SortDirection.ASCENDING ? ">" : "<";
+
+            assertTrue(query.contains("dateReported " + comparison + " CAST(? AS datetime) OR (dateReported = CAST(? AS datetime) AND issueId " + comparison + " ?)"), query);
+        }
+    }
+
+    @Test
+    void firstPageHasNoSeek()
+    {
+        String query = IssueSummary.pageQuery(IssueFilter.none(), SortDirection.ASCENDING, false);
+
+        assertFalse(query.contains("CAST"), query);
+    }
+
+    @Test
+    void cursorsKeepTheMillisecondsOfTheBoundaries()
+    {
+        for (var reported : new Timestamp[] { AT_003, AT_007 })
+        {
+            var cursor = IssueCursor.decode(new IssueCursor(reported, 42).encode());
+
+            assertEquals(reported.getTime(), cursor.dateReported().getTime());
+            assertEquals(42, cursor.issueId());
+        }
+    }
+}
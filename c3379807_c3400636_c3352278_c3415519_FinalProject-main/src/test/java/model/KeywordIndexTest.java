@@ -0,0 +1,161 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.BitSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class KeywordIndexTest
+{
+    private static final int VPN = 1;
+    private static final int PRINTER = 2;
+    private static final int PASSWORD = 3;
+
+    /**
+     * Issues 1 to 6 over two categories and two states, with keywords:
+     * 1 {VPN}, 2 {VPN, PASSWORD}, 3 {PRINTER}, 4 {PRINTER, PASSWORD}, 5 {}, 6 {VPN, PRINTER}.
+     */
+    private static KeywordIndex index()
+    {
+        var index = new KeywordIndex();
+        index.putIssue(1, 10, State.NEW);
+        index.putIssue(2, 10, State.IN_PROGRESS);
+        index.putIssue(3, 20, State.NEW);
+        index.putIssue(4, 20, State.IN_PROGRESS);
+        index.putIssue(5, 10, State.NEW);
+        index.putIssue(6, 20, State.NEW);
+
+        index.link(101, 1, VPN);
+        index.link(102, 2, VPN);
+        index.link(103, 2, PASSWORD);
+        index.link(104, 3, PRINTER);
+        index.link(105, 4, PRINTER);
+        index.link(106, 4, PASSWORD);
+        index.link(107, 6, VPN);
+        index.link(108, 6, PRINTER);
+        return index;
+    }
+
+    private static BitSet issues(int... _issueIds)
+    {
+        var bitmap = new BitSet();
+        for (int issueId : _issueIds)
+        {
+            bitmap.set(issueId);
+        }
+        return bitmap;
+    }
+
+    private static KeywordFilter filter(Set<Integer> _allOf, Set<Integer> _anyOf, Set<Integer> _noneOf)
+    {
+        return new KeywordFilter(_allOf, _anyOf, _noneOf, null, null);
+    }
+
+    @Test
+    void emptyFilterMatchesEveryIssue()
+    {
+        assertEquals(issues(1, 2, 3, 4, 5, 6), index().match(filter(null, null, null)));
+    }
+
+    @Test
+    void allOfIsAnIntersection()
+    {
+        var index = index();
+
+        assertEquals(issues(1, 2, 6), index.match(filter(Set.of(VPN), null, null)));
+        assertEquals(issues(2), index.match(filter(Set.of(VPN, PASSWORD), null, null)));
+        assertEquals(issues(), index.match(filter(Set.of(VPN, PRINTER, PASSWORD), null, null)));
+    }
+
+    @Test
+    void anyOfIsAUnion()
+    {
+        assertEquals(issues(1, 2, 3, 4, 6), index().match(filter(null, Set.of(VPN, PRINTER), null)));
+    }
+
+    @Test
+    void noneOfIsADifference()
+    {
+        var index = index();
+
+        assertEquals(issues(3, 5), index.match(filter(null, null, Set.of(VPN, PASSWORD))));
+        assertEquals(issues(1), index.match(filter(Set.of(VPN), null, Set.of(PRINTER, PASSWORD))));
+    }
+
+    @Test
+    void operatorsCombine()
+    {
+        // PASSWORD and (VPN or PRINTER) and not VPN
+        assertEquals(issues(4), index().match(filter(Set.of(PASSWORD), Set.of(VPN, PRINTER), Set.of(VPN))));
+    }
+
+    @Test
+    void categoryAndStateNarrowTheMatch()
+    {
+        var index = index();
+
+        assertEquals(issues(3, 4, 6), index.match(new KeywordFilter(null, null, null, 20, null)));
+        assertEquals(issues(6), index.match(new KeywordFilter(Set.of(VPN), null, null, 20, State.NEW)));
+        assertEquals(issues(2, 4), index.match(new KeywordFilter(null, Set.of(PASSWORD), null, null, State.IN_PROGRESS)));
+        assertEquals(issues(4), index.match(new KeywordFilter(null, Set.of(PASSWORD), Set.of(VPN), 20, State.IN_PROGRESS)));
+    }
+
+    @Test
+    void unknownKeywordsAndCategoriesMatchNothing()
+    {
+        var index = index();
+
+        assertEquals(issues(), index.match(filter(Set.of(99), null, null)));
+        assertEquals(issues(), index.match(filter(null, Set.of(99), null)));
+        assertEquals(issues(1, 2, 3, 4, 5, 6), index.match(filter(null, null, Set.of(99))));
+        assertEquals(issues(), index.match(new KeywordFilter(null, null, null, 99, null)));
+    }
+
+    @Test
+    void linksAreCountedUntilTheLastRowMovesAway()
+    {
+        var index = index();
+
+        // The keyword appears in both the title and the description of issue 5
+        index.link(109, 5, PRINTER);
+        index.link(110, 5, PRINTER);
+        index.link(109, 5, VPN);
+
+        assertEquals(issues(3, 4, 5, 6), index.match(filter(Set.of(PRINTER), null, null)));
+        assertEquals(issues(1, 2, 5, 6), index.match(filter(Set.of(VPN), null, null)));
+
+        index.link(110, 5, VPN);
+
+        assertEquals(issues(3, 4, 6), index.match(filter(Set.of(PRINTER), null, null)));
+        assertEquals(issues(1, 2, 5, 6), index.match(filter(Set.of(VPN), null, null)));
+    }
+
+    @Test
+    void recordingARowAgainChangesNothing()
+    {
+        var index = index();
+
+        // A link replayed after a reload that had already read its row
+        index.link(104, 3, PRINTER);
+        index.link(108, 7, PRINTER);
+
+        assertEquals(issues(3, 4, 7), index.match(filter(Set.of(PRINTER), null, null)));
+
+        index.link(108, 7, PRINTER);
+        index.link(104, 3, PRINTER);
+
+        assertEquals(issues(3, 4, 7), index.match(filter(Set.of(PRINTER), null, null)));
+    }
+
+    @Test
+    void issuesMoveBetweenCategoriesAndStates()
+    {
+        var index = index();
+        index.putIssue(1, 20, State.IN_PROGRESS);
+
+        assertEquals(issues(2, 5), index.match(new KeywordFilter(null, null, null, 10, null)));
+        assertEquals(issues(1, 2, 4), index.match(new KeywordFilter(null, null, null, null, State.IN_PROGRESS)));
+    }
+}
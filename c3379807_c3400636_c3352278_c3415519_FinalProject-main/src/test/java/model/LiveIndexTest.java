@@ -0,0 +1,118 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class LiveIndexTest
+{
+    /**
+     * The state of each issue, as the simplest index that is kept up to date from the events.
+     */
+    private static class StateIndex implements IssueListener
+    {
+        private final Map<Integer, Integer> stateOf = new HashMap<>();
+
+        @Override
+        public void issueStateChanged(int _issueId, int _stateId)
+        {
+            stateOf.put(_issueId, _stateId);
+        }
+    }
+
+    @Test
+    void changesBeforeTheFirstLoadAreLeftToTheLoad() throws SQLException
+    {
+        var live = new LiveIndex<>(StateIndex::new);
+        live.issueStateChanged(1, State.IN_PROGRESS);
+
+        assertEquals(Map.of(), live.read(index -> index.stateOf));
+    }
+
+    @Test
+    void changesDuringALoadAreReplayedOnTheNewIndex() throws SQLException
+    {
+        var holder = new Object()
+        {
+            LiveIndex<StateIndex> live;
+        };
+
+        holder.live = new LiveIndex<>(() ->
+        {
+            var loaded = new StateIndex();
+            loaded.issueStateChanged(1, State.NEW);
+            loaded.issueStateChanged(2, State.NEW);
+
+            // Issue 1 moves after the build read it, issue 2 before, so the build already has its new state
+            holder.live.issueStateChanged(1, State.IN_PROGRESS);
+            loaded.issueStateChanged(2, State.RESOLVED);
+            holder.live.issueStateChanged(2, State.RESOLVED);
+            return loaded;
+        });
+
+        assertEquals(Map.of(1, State.IN_PROGRESS, 2, State.RESOLVED), holder.live.read(index -> index.stateOf));
+    }
+
+    @Test
+    void changesDuringAReloadReachBothIndexes() throws SQLException
+    {
+        var first = new StateIndex();
+        var second = new StateIndex();
+        var loads = new StateIndex[] { first, second };
+        var count = new int[1];
+
+        var holder = new Object()
+        {
+            LiveIndex<StateIndex> live;
+        };
+
+        holder.live = new LiveIndex<>(() ->
+        {
+            var loaded = loads[count[0]++];
+
+            if (loaded == second)
+            {
+                holder.live.issueStateChanged(3, State.COMPLETED);
+                assertEquals(Map.of(3, State.COMPLETED), first.stateOf);
+            }
+            return loaded;
+        });
+
+        holder.live.reload();
+        holder.live.reload();
+
+        assertSame(second, holder.live.read(index -> index));
+        assertEquals(Map.of(3, State.COMPLETED), second.stateOf);
+    }
+
+    @Test
+    void aFailedReloadKeepsTheCurrentIndex() throws SQLException
+    {
+        var first = new StateIndex();
+        var fail = new boolean[1];
+
+        var live = new LiveIndex<>(() ->
+        {
+            if (fail[0])
+            {
+                throw new RuntimeException(new SQLException("Connection lost"));
+            }
+            return first;
+        });
+
+        live.reload();
+        fail[0] = true;
+
+        assertThrows(SQLException.class, live::reload);
+        assertSame(first, live.read(index -> index));
+
+        live.issueStateChanged(4, State.NEW);
+        assertEquals(Map.of(4, State.NEW), first.stateOf);
+    }
+}
@@ -0,0 +1,98 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ResolutionSketchTest
+{
+    private static final double[] QUANTILES = { 0.01, 0.25, 0.5, 0.9, 0.99, 0.999 };
+
+    @Test
+    void quantilesAreWithinTheRelativeAccuracy()
+    {
+        // Resolution times from minutes to months, skewed like real ones
+        var random = new Random(42);
+        var values = new double[20000];
+        var sketch = new ResolutionSketch();
+
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = Math.exp(6 + 2 * random.nextGaussian()) + 1;
+            sketch.add(values[i], 1);
+        }
+
+        Arrays.sort(values);
+
+        for (double quantile : QUANTILES)
+        {
+            double expected = values[(int) Math.floor(quantile * (values.length - 1))];
+            double actual = sketch.getQuantile(quantile);
+
+            assertTrue(Math.abs(actual - expected) <= ResolutionSketch.RELATIVE_ACCURACY * expected,
+                    () -> "quantile " + quantile + ": expected " + expected + " but was " + actual);
+        }
+    }
+
+    @Test
+    void mergedSketchesAnswerLikeOneSketch()
+    {
+        var random = new Random(7);
+        var whole = new ResolutionSketch();
+        var first = new ResolutionSketch();
+        var second = new ResolutionSketch();
+
+        for (int i = 0; i < 5000; i++)
+        {
+            // The halves cover different ranges, so merging has to grow the buckets at both ends
+            double value = i % 2 == 0 ? 1 + random.nextDouble() * 100 : 1000 + random.nextDouble() * 100000;
+            whole.add(value, 1);
+            (i % 2 == 0 ? first : second).add(value, 1);
+        }
+
+        var merged = new ResolutionSketch();
+        merged.merge(second);
+        merged.merge(first);
+
+        assertEquals(whole.getCount(), merged.getCount());
+
+        for (double quantile : QUANTILES)
+        {
+            assertEquals(whole.getQuantile(quantile), merged.getQuantile(quantile), 0);
+        }
+    }
+
+    @Test
+    void removedValuesNoLongerCount()
+    {
+        var sketch = new ResolutionSketch();
+        sketch.add(10, 1);
+        sketch.add(20, 1);
+        sketch.add(5000, 1);
+        sketch.add(5000, -1);
+
+        assertEquals(2, sketch.getCount());
+        assertEquals(20, sketch.getQuantile(1), 20 * ResolutionSketch.RELATIVE_ACCURACY);
+
+        sketch.add(10, -1);
+        sketch.add(20, -1);
+
+        assertTrue(sketch.isEmpty());
+        assertEquals(0, sketch.getQuantile(0.5), 0);
+    }
+
+    @Test
+    void timesUnderAMinuteAreZero()
+    {
+        var sketch = new ResolutionSketch();
+        sketch.add(0.5, 3);
+        sketch.add(60, 1);
+
+        assertEquals(0, sketch.getQuantile(0.5), 0);
+        assertEquals(60, sketch.getQuantile(1), 60 * ResolutionSketch.RELATIVE_ACCURACY);
+    }
+}
@@ -0,0 +1,79 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest
+{
+    private static List<Integer> ids(List<SearchResult> _results)
+    {
+        return _results.stream().map(SearchResult::id).toList();
+    }
+
+    private static SearchIndex index()
+    {
+        var index = new SearchIndex();
+        index.put(SearchIndex.ISSUE, 1, 1, "Printer jammed", "The printer on level 2 keeps jamming", null);
+        index.put(SearchIndex.ISSUE, 2, 2, "Email not syncing", "Outlook stopped syncing email on my laptop", null);
+        index.put(SearchIndex.ISSUE, 3, 3, "Laptop slow", "My laptop is slow after the update, the printer also fails", null);
+        index.put(SearchIndex.ISSUE, 4, 4, "Wifi drops", "The wifi drops every hour in the library", null);
+        index.put(SearchIndex.ARTICLE, 10, 1, "Clearing a printer jam", "Open the tray and remove the jammed paper", "Cleared the jam");
+        return index;
+    }
+
+    @Test
+    void stemmedQueryMatchesInflections()
+    {
+        var results = index().rank(TextAnalyzer.terms("printers jamming"), SearchIndex.ISSUE, 10);
+
+        assertEquals(List.of(1, 3), ids(results));
+    }
+
+    @Test
+    void rareTermsOutweighCommonOnes()
+    {
+        // "laptop" is in two issues, "outlook" in one, so the issue with "outlook" ranks first
+        var results = index().rank(TextAnalyzer.terms("outlook laptop"), SearchIndex.ISSUE, 10);
+
+        assertEquals(List.of(2, 3), ids(results));
+        assertTrue(results.get(0).score() > results.get(1).score());
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches()
+    {
+        var index = new SearchIndex();
+        index.put(SearchIndex.ISSUE, 1, 1, "Monitor flickers", "Since this morning the screen goes dark now and then", null);
+        index.put(SearchIndex.ISSUE, 2, 2, "Screen goes dark", "Since this morning the monitor flickers now and then", null);
+
+        assertEquals(List.of(1, 2), ids(index.rank(TextAnalyzer.terms("monitor"), SearchIndex.ISSUE, 10)));
+        assertEquals(List.of(2, 1), ids(index.rank(TextAnalyzer.terms("dark"), SearchIndex.ISSUE, 10)));
+    }
+
+    @Test
+    void resultsAreFilteredByTypeAndLimited()
+    {
+        var index = index();
+
+        assertEquals(List.of(10), ids(index.rank(TextAnalyzer.terms("jam"), SearchIndex.ARTICLE, 10)));
+        assertEquals(4, index.rank(TextAnalyzer.terms("printer jam laptop"), null, 10).size());
+        assertEquals(1, index.rank(TextAnalyzer.terms("printer jam"), null, 1).size());
+    }
+
+    @Test
+    void replacedDocumentsNoLongerMatchTheirOldText()
+    {
+        var index = index();
+        index.put(SearchIndex.ISSUE, 4, 4, "Wifi drops", "The wifi drops every hour in the library", "Replaced the access point");
+
+        assertEquals(List.of(4), ids(index.rank(TextAnalyzer.terms("access point"), SearchIndex.ISSUE, 10)));
+
+        index.put(SearchIndex.ISSUE, 4, 4, "Network outage", "Nothing connects", null);
+
+        assertEquals(List.of(), index.rank(TextAnalyzer.terms("wifi library access"), SearchIndex.ISSUE, 10));
+    }
+}
@@ -0,0 +1,127 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SimilarityIndexTest
+{
+    private static final int DOCUMENTS = 200;
+    private static final int WORDS = 40;
+
+    /**
+     * Variants keep the first SHARED words of a document and replace the rest. Each text has 40 terms
+     * and 39 adjacent pairs, so the sets share 2 * 21 - 1 = 41 of 117 elements: a Jaccard similarity of 0.35.
+     */
+    private static final int SHARED = 21;
+    private static final double JACCARD = (2.0 * SHARED - 1) / (4 * WORDS - 1 - (2 * SHARED - 1));
+
+    private static List<String> words(Random _random, int _count)
+    {
+        var words = new ArrayList<String>(_count);
+        for (int i = 0; i < _count; i++)
+        {
+            var word = new StringBuilder("w");
+            for (int j = 0; j < 8; j++)
+            {
+                word.append((char) ('a' + _random.nextInt(26)));
+            }
+            words.add(word.toString());
+        }
+        return words;
+    }
+
+    @Test
+    void nearDuplicatesAreFoundWithTheirEstimatedSimilarity()
+    {
+        var random = new Random(11);
+        var index = new SimilarityIndex();
+        var variants = new ArrayList<String>();
+
+        for (int id = 0; id < DOCUMENTS; id++)
+        {
+            var words = words(random, WORDS);
+            index.put(SearchIndex.ISSUE, id, id, "Issue " + id, String.join(" ", words));
+
+            var variant = new ArrayList<>(words.subList(0, SHARED));
+            variant.addAll(words(random, WORDS - SHARED));
+            variants.add(String.join(" ", variant));
+        }
+
+        int found = 0;
+        double error = 0;
+
+        for (int id = 0; id < DOCUMENTS; id++)
+        {
+            var results = index.similar(SimilarityIndex.signature(variants.get(id)), 5);
+
+            for (var result : results)
+            {
+                if (result.id() == id)
+                {
+                    found++;
+                    error += Math.abs(result.score() - JACCARD);
+                }
+            }
+        }
+
+        assertTrue(found >= DOCUMENTS * 0.95, "found " + found + " of " + DOCUMENTS);
+        assertTrue(error / found < 0.05, "mean error " + error / found);
+    }
+
+    @Test
+    void unrelatedTextsAreNotSuggested()
+    {
+        var random = new Random(12);
+        var index = new SimilarityIndex();
+
+        for (int id = 0; id < DOCUMENTS; id++)
+        {
+            index.put(SearchIndex.ISSUE, id, id, "Issue " + id, String.join(" ", words(random, WORDS)));
+        }
+
+        int suggested = 0;
+        for (int query = 0; query < 50; query++)
+        {
+            suggested += index.similar(SimilarityIndex.signature(String.join(" ", words(random, WORDS))), 5).size();
+        }
+
+        assertEquals(0, suggested);
+    }
+
+    @Test
+    void identicalTextsAreFullySimilar()
+    {
+        var index = new SimilarityIndex();
+        index.put(SearchIndex.ISSUE, 1, 1, "VPN", "Cannot connect to the VPN from home since the update");
+
+        var results = index.similar(SimilarityIndex.signature("cannot connect to VPN from home since update"), 5);
+
+        assertEquals(1, results.size());
+        assertEquals(1.0, results.get(0).score(), 0);
+    }
+
+    @Test
+    void replacedDocumentsAreFoundByTheirNewText()
+    {
+        var index = new SimilarityIndex();
+        index.put(SearchIndex.ISSUE, 1, 1, "VPN", "Cannot connect to the VPN from home since the update");
+        index.put(SearchIndex.ISSUE, 1, 1, "Printer", "Printer on level two jams on every double sided job");
+
+        assertEquals(0, index.similar(SimilarityIndex.signature("Cannot connect to the VPN from home since the update"), 5).size());
+        assertEquals(1, index.similar(SimilarityIndex.signature("Printer on level two jams on every double sided job"), 5).size());
+    }
+
+    @Test
+    void textsWithoutTermsHaveNoSignature()
+    {
+        assertNull(SimilarityIndex.signature("the and of"));
+        assertNull(SimilarityIndex.signature(null));
+    }
+}
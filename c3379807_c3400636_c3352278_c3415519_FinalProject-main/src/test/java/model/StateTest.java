@@ -0,0 +1,71 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class StateTest
+{
+    @Test
+    void newIssuesCanOnlyBeStartedOrRejected()
+    {
+        assertTrue(State.canTransition(State.NEW, State.IN_PROGRESS));
+        assertTrue(State.canTransition(State.NEW, State.NOT_ACCEPTED));
+        assertFalse(State.canTransition(State.NEW, State.RESOLVED));
+        assertFalse(State.canTransition(State.NEW, State.COMPLETED));
+    }
+
+    @Test
+    void closedIssuesCanBeReopened()
+    {
+        assertTrue(State.canTransition(State.RESOLVED, State.IN_PROGRESS));
+        assertTrue(State.canTransition(State.COMPLETED, State.IN_PROGRESS));
+        assertTrue(State.canTransition(State.COMPLETED, State.RESOLVED));
+        assertFalse(State.canTransition(State.RESOLVED, State.COMPLETED));
+        assertFalse(State.canTransition(State.RESOLVED, State.NEW));
+    }
+
+    @Test
+    void noStateTransitionsToItself()
+    {
+        for (int stateId = State.NEW; stateId <= State.RESOLVED; stateId++)
+        {
+            assertFalse(State.canTransition(stateId, stateId), "state " + stateId);
+        }
+    }
+
+    @Test
+    void unknownStatesCannotTransition()
+    {
+        assertFalse(State.canTransition(0, State.IN_PROGRESS));
+        assertFalse(State.canTransition(State.IN_PROGRESS, 99));
+    }
+
+    @Test
+    void statesBeforeAreTheInverseOfTheTransitions()
+    {
+        assertEquals(Set.of(State.IN_PROGRESS, State.WAITING_ON_THIRD_PARTY, State.WAITING_ON_REPORTER, State.COMPLETED), State.getStatesBefore(State.RESOLVED));
+        assertEquals(Set.of(State.NOT_ACCEPTED), State.getStatesBefore(State.NEW));
+
+        for (int to = State.NEW; to <= State.RESOLVED; to++)
+        {
+            for (int from = State.NEW; from <= State.RESOLVED; from++)
+            {
+                assertEquals(State.canTransition(from, to), State.getStatesBefore(to).contains(from), from + " -> " + to);
+            }
+        }
+    }
+
+    @Test
+    void onlyResolvedAndCompletedAreClosed()
+    {
+        for (int stateId = State.NEW; stateId <= State.RESOLVED; stateId++)
+        {
+            assertEquals(stateId != State.RESOLVED && stateId != State.COMPLETED, State.isOpen(stateId), "state " + stateId);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class TextAnalyzerTest
+{
+    @Test
+    void inflectionsShareAStem()
+    {
+        assertEquals("printer", TextAnalyzer.stem("printers"));
+        assertEquals(TextAnalyzer.stem("crashing"), TextAnalyzer.stem("crashed"));
+        assertEquals("issu", TextAnalyzer.stem("issue"));
+        assertEquals("issu", TextAnalyzer.stem("issues"));
+        assertEquals("issu", TextAnalyzer.stem("issued"));
+        assertEquals("stop", TextAnalyzer.stem("stopped"));
+        assertEquals("reply", TextAnalyzer.stem("replies"));
+    }
+
+    @Test
+    void shortWordsAndNonPluralsAreKept()
+    {
+        assertEquals("bus", TextAnalyzer.stem("bus"));
+        assertEquals("access", TextAnalyzer.stem("access"));
+        assertEquals("2fa", TextAnalyzer.stem("2fa"));
+    }
+
+    @Test
+    void termsAreLowerCasedWithoutStopWordsOrPunctuation()
+    {
+        assertEquals(List.of("printer", "jam", "floor", "3"), TextAnalyzer.terms("The printer is JAMMED on floor 3!"));
+        assertEquals(List.of(), TextAnalyzer.terms(null));
+        assertEquals(List.of(), TextAnalyzer.terms("  , . ; "));
+    }
+}